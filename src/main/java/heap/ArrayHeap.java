@@ -1,19 +1,28 @@
 package heap;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
-import java.util.List;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class ArrayHeap<T> implements Heap<T> {
 
-	private final List<T> contents;
-	private final Comparator<T> comp;
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private Comparator<T> comp;
 	private final int order;
+	private Object[] contents;
+	private int size;
+	// Counts structural modifications, so that the sorted view can detect
+	// them.
+	private int modCount;
 
 	public ArrayHeap(int order) {
 		this(order, (arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
@@ -26,19 +35,78 @@ public class ArrayHeap<T> implements Heap<T> {
 		if (comp == null) {
 			throw new NullPointerException("The provided comparator must not be null");
 		}
-		this.contents = new ArrayList<>();
+		this.contents = new Object[DEFAULT_CAPACITY];
 		this.order = order;
 		this.comp = comp;
 	}
 
+	/**
+	 * Creates a heap containing the elements of the collection, using natural
+	 * ordering. Null elements are ignored. The heap is built bottom-up in
+	 * linear time instead of offering the elements one by one.
+	 * 
+	 * @param order
+	 *            the order of the heap.
+	 * @param c
+	 *            the initial elements.
+	 * @return a heap containing the elements.
+	 */
+	public static <T> ArrayHeap<T> of(int order, Collection<? extends T> c) {
+		ArrayHeap<T> heap = new ArrayHeap<>(order);
+		heap.addAllAndHeapify(c.toArray());
+		return heap;
+	}
+
+	/**
+	 * Creates a heap containing the elements of the collection, ordered by the
+	 * comparator. Null elements are ignored. The heap is built bottom-up in
+	 * linear time instead of offering the elements one by one.
+	 * 
+	 * @param order
+	 *            the order of the heap.
+	 * @param comp
+	 *            the comparator used to order the heap.
+	 * @param c
+	 *            the initial elements.
+	 * @return a heap containing the elements.
+	 */
+	public static <T> ArrayHeap<T> of(int order, Comparator<T> comp, Collection<? extends T> c) {
+		ArrayHeap<T> heap = new ArrayHeap<>(order, comp);
+		heap.addAllAndHeapify(c.toArray());
+		return heap;
+	}
+
+	/**
+	 * Creates a heap containing the elements of the array, ordered by the
+	 * comparator. Null elements are ignored and the array is not modified. The
+	 * heap is built bottom-up in linear time instead of offering the elements
+	 * one by one.
+	 * 
+	 * @param order
+	 *            the order of the heap.
+	 * @param comp
+	 *            the comparator used to order the heap.
+	 * @param array
+	 *            the initial elements.
+	 * @return a heap containing the elements.
+	 */
+	public static <T> ArrayHeap<T> of(int order, Comparator<T> comp, T[] array) {
+		ArrayHeap<T> heap = new ArrayHeap<>(order, comp);
+		heap.addAllAndHeapify(array);
+		return heap;
+	}
+
 	@Override
 	public boolean offer(T t) {
 		if (t == null) {
 			return false;
 		}
-		boolean success = contents.add(t);
-		siftUp(size() - 1);
-		return success;
+		if (size == contents.length) {
+			grow();
+		}
+		modCount++;
+		siftUp(size++, t);
+		return true;
 	}
 
 	@Override
@@ -46,7 +114,7 @@ public class ArrayHeap<T> implements Heap<T> {
 		if (isEmpty()) {
 			throw new NoSuchElementException("Heap underflow");
 		}
-		return getRoot();
+		return elementAt(0);
 	}
 
 	@Override
@@ -54,71 +122,209 @@ public class ArrayHeap<T> implements Heap<T> {
 		if (isEmpty()) {
 			throw new NoSuchElementException("Heap underflow");
 		}
-		swap(0, contents.size() - 1);
-		T previousRoot = removeLast();
-		siftDown(0);
+		modCount++;
+		T previousRoot = elementAt(0);
+		T last = elementAt(--size);
+		contents[size] = null;
+		if (size > 0) {
+			siftDown(0, last);
+		}
 		return previousRoot;
 	}
 
-	private T removeLast() {
-		return contents.remove(contents.size() - 1);
+	/**
+	 * Offers every element of the collection. Null elements are ignored. A
+	 * batch that is large compared to the heap is appended and the whole heap
+	 * is rebuilt bottom-up, which costs linear time instead of a sift per
+	 * element.
+	 * 
+	 * @param c
+	 *            the elements to offer.
+	 * @return true if the heap changed as a result of the call.
+	 */
+	@Override
+	public boolean offerAll(Collection<? extends T> c) {
+		int previousSize = size;
+		if (c.size() > size / 2) {
+			addAllAndHeapify(c.toArray());
+		} else {
+			for (T t : c) {
+				offer(t);
+			}
+		}
+		return size != previousSize;
 	}
 
-	private T getRoot() {
-		return contents.get(0);
+	/**
+	 * Polls at most n elements and passes them to the action, smallest first.
+	 * When at least half of the heap is polled, the contents are sorted once
+	 * instead of sifting after every element. A sorted array is a valid heap,
+	 * so the remaining elements stay in place. The batch is taken out of the
+	 * heap before the action runs, so the action may use the heap, and the
+	 * elements it has not received are offered again if it throws.
+	 * 
+	 * @param n
+	 *            the maximum number of elements to poll.
+	 * @param action
+	 *            receives the polled elements.
+	 * @return the number of elements polled.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public int pollN(int n, Consumer<? super T> action) {
+		if (n <= 0) {
+			return 0;
+		}
+		if (n < size / 2) {
+			for (int i = 0; i < n; i++) {
+				action.accept(poll());
+			}
+			return n;
+		}
+		int count = Math.min(n, size);
+		modCount++;
+		Arrays.sort(contents, 0, size, (a, b) -> comp.compare((T) a, (T) b));
+		Object[] batch = Arrays.copyOf(contents, count);
+		System.arraycopy(contents, count, contents, 0, size - count);
+		Arrays.fill(contents, size - count, size, null);
+		size -= count;
+		int polled = 0;
+		try {
+			while (polled < count) {
+				action.accept((T) batch[polled++]);
+			}
+		} finally {
+			for (int i = polled; i < count; i++) {
+				offer((T) batch[i]);
+			}
+		}
+		return polled;
 	}
 
-	private void siftUp(int index) {
-		T element = contents.get(index);
-		int parentPos = getParent(index);
+	/**
+	 * Replaces the comparator of this heap and restores the heap property in
+	 * place, in linear time.
+	 * 
+	 * @param comp
+	 *            the new comparator.
+	 */
+	public void reorder(Comparator<T> comp) {
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.comp = comp;
+		modCount++;
+		heapify();
+	}
 
-		while (parentPos >= 0) {
-			T parent = contents.get(parentPos);
-			if (comp.compare(element, parent) < 0) {
-				swap(index, parentPos);
-				index = parentPos;
-				parentPos = getParent(index);
-			} else {
-				break;
+	/**
+	 * Returns a spliterator over the elements in no particular order. It
+	 * splits the backing array evenly and reports its exact size, so it is
+	 * well suited to parallel streams. The heap must not be modified while
+	 * the spliterator is in use.
+	 * 
+	 * @return a spliterator over the elements.
+	 */
+	@SuppressWarnings("unchecked")
+	public Spliterator<T> spliterator() {
+		return (Spliterator<T>) Spliterators.spliterator(contents, 0, size, Spliterator.NONNULL);
+	}
+
+	/**
+	 * Returns a stream of the elements in no particular order, without
+	 * modifying the heap.
+	 * 
+	 * @return a stream of the elements.
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Returns a lazy stream of the elements in priority order, without
+	 * modifying the heap. The elements are found by walking the heap from the
+	 * root with a second heap holding the indices of the candidates, so
+	 * taking the first k elements of a heap of order d costs O(k log(dk))
+	 * time and O(dk) space. The stream fails with a
+	 * ConcurrentModificationException if the heap is modified while it is in
+	 * use.
+	 * 
+	 * @return a sorted stream of the elements.
+	 */
+	public Stream<T> sortedStream() {
+		return StreamSupport.stream(Spliterators.spliterator(new SortedIterator(), size, Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	private void addAllAndHeapify(Object[] elements) {
+		if (contents.length < size + elements.length) {
+			contents = Arrays.copyOf(contents, size + elements.length);
+		}
+		for (Object element : elements) {
+			if (element != null) {
+				contents[size++] = element;
 			}
 		}
+		modCount++;
+		heapify();
 	}
 
-	private void siftDown(int index) {
-		while (hasAtLeastOneChild(index)) {
-			T element = contents.get(index);
-			int smallestChild = getSmallestChildOf(index);
-			if (comp.compare(element, contents.get(smallestChild)) > 0) {
-				swap(index, smallestChild);
-				index = smallestChild;
-			} else {
-				break;
-			}
+	// Floyd's bottom-up construction: sifts down every parent, starting with
+	// the last one.
+	private void heapify() {
+		if (size < 2) {
+			return;
+		}
+		for (int i = getParent(size - 1); i >= 0; i--) {
+			siftDown(i, elementAt(i));
 		}
 	}
 
-	private void swap(int i, int j) {
-		Collections.swap(contents, i, j);
+	// Moves parents down into the hole at index until the element fits, then
+	// writes the element once instead of swapping at every level.
+	private void siftUp(int index, T element) {
+		while (index > 0) {
+			int parent = getParent(index);
+			T parentElement = elementAt(parent);
+			if (comp.compare(element, parentElement) >= 0) {
+				break;
+			}
+			contents[index] = parentElement;
+			index = parent;
+		}
+		contents[index] = element;
 	}
 
-	private List<Integer> getIndexChildrenOf(int index) {
-		return IntStream.range(0, order)
-				.map(e -> getChild(index, e))
-				.filter(e -> e < size())
-				.boxed()
-				.collect(Collectors.toList());
+	private void siftDown(int index, T element) {
+		siftDown(contents, 0, size, order, index, element, comp);
 	}
 
-	private int getSmallestChildOf(int index) {
-		Optional<Integer> child = getIndexChildrenOf(index).stream()
-				.min((arg0, arg1) -> {
-					return comp.compare(contents.get(arg0), contents.get(arg1));
-				});
-		return child.get();
+	// The sift shared with HeapSort, for a heap of the given size and order
+	// which starts at index base of the array.
+	@SuppressWarnings("unchecked")
+	static <T> void siftDown(Object[] contents, int base, int size, int order, int index, T element, Comparator<? super T> comp) {
+		while ((long) order * index + 1 < size) {
+			int first = order * index + 1;
+			int end = (int) Math.min((long) first + order, size);
+			int smallest = first;
+			T smallestElement = (T) contents[base + first];
+			for (int i = first + 1; i < end; i++) {
+				T candidate = (T) contents[base + i];
+				if (comp.compare(candidate, smallestElement) < 0) {
+					smallest = i;
+					smallestElement = candidate;
+				}
+			}
+			if (comp.compare(smallestElement, element) >= 0) {
+				break;
+			}
+			contents[base + index] = smallestElement;
+			index = smallest;
+		}
+		contents[base + index] = element;
 	}
 
 	private boolean hasAtLeastOneChild(int index) {
-		return getChild(index, 0) < size();
+		return (long) order * index + 1 < size;
 	}
 
 	private int getParent(int index) {
@@ -130,13 +336,69 @@ public class ArrayHeap<T> implements Heap<T> {
 		return (order * index) + number + 1;
 	}
 
+	@SuppressWarnings("unchecked")
+	private T elementAt(int index) {
+		return (T) contents[index];
+	}
+
+	private void grow() {
+		int newCapacity = contents.length + (contents.length >> 1) + 1;
+		if (newCapacity < 0) {
+			newCapacity = Integer.MAX_VALUE - 8;
+		}
+		contents = Arrays.copyOf(contents, newCapacity);
+	}
+
+	// Returns a copy of the backing array, in heap order.
+	Object[] toArray() {
+		return Arrays.copyOf(contents, size);
+	}
+
 	@Override
 	public int size() {
-		return contents.size();
+		return size;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return contents.isEmpty();
+		return size == 0;
+	}
+
+	// Yields the elements in order by repeatedly taking the smallest index from
+	// the frontier and adding its children, which can only be greater.
+	private final class SortedIterator implements Iterator<T> {
+
+		private final IntHeap frontier = new IntHeap(order, (a, b) -> comp.compare(elementAt(a), elementAt(b)));
+		private final int expectedModCount = modCount;
+
+		private SortedIterator() {
+			if (size > 0) {
+				frontier.offer(0);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !frontier.isEmpty();
+		}
+
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (frontier.isEmpty()) {
+				throw new NoSuchElementException();
+			}
+			int index = frontier.poll();
+			if (hasAtLeastOneChild(index)) {
+				int first = getChild(index, 0);
+				int end = (int) Math.min((long) first + order, size);
+				for (int i = first; i < end; i++) {
+					frontier.offer(i);
+				}
+			}
+			return elementAt(index);
+		}
 	}
 }
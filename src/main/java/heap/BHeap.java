@@ -0,0 +1,171 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary heap in the B-heap layout described by Poul-Henning Kamp. The array
+ * is divided into pages, and each page holds complete subtrees, so a sift
+ * crosses into a new page only once every log2(pageSize) levels instead of at
+ * almost every level. When the heap is much larger than the CPU caches, this
+ * means far fewer cache and TLB misses per operation than the implicit layout
+ * of {@link ArrayHeap}.
+ * <p>
+ * The page size is given in elements and must be a power of two of at least
+ * four. It should be chosen so that one page of references fills a memory
+ * page, or a small number of cache lines.
+ */
+public class BHeap<T> implements Heap<T> {
+
+	private static final int DEFAULT_PAGE_SIZE = 512;
+
+	private final Comparator<T> comp;
+	private final int pageShift;
+	private final int pageSize;
+	private final int pageMask;
+	// The root is stored at index 1.
+	private Object[] contents;
+	private int size;
+
+	public BHeap() {
+		this(DEFAULT_PAGE_SIZE);
+	}
+
+	public BHeap(int pageSize) {
+		this(pageSize, (arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
+	}
+
+	public BHeap(int pageSize, Comparator<T> comp) {
+		if (pageSize < 4 || Integer.bitCount(pageSize) != 1) {
+			throw new IllegalArgumentException("The page size must be a power of two of at least four");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.contents = new Object[pageSize];
+		this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+		this.pageSize = pageSize;
+		this.pageMask = pageSize - 1;
+		this.comp = comp;
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		if (size == Integer.MAX_VALUE - 1) {
+			throw new IllegalStateException("Heap is full");
+		}
+		if (size + 1 == contents.length) {
+			// Grows by whole pages.
+			long capacity = Math.min((long) contents.length * 2, Integer.MAX_VALUE);
+			contents = Arrays.copyOf(contents, (int) capacity);
+		}
+		siftUp(++size, t);
+		return true;
+	}
+
+	@Override
+	public T peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return elementAt(1);
+	}
+
+	@Override
+	public T poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		T previousRoot = elementAt(1);
+		T last = elementAt(size);
+		contents[size--] = null;
+		if (size > 0) {
+			siftDown(1, last);
+		}
+		return previousRoot;
+	}
+
+	private void siftUp(int index, T element) {
+		while (index > 1) {
+			int parent = getParent(index);
+			T parentElement = elementAt(parent);
+			if (comp.compare(element, parentElement) >= 0) {
+				break;
+			}
+			contents[index] = parentElement;
+			index = parent;
+		}
+		contents[index] = element;
+	}
+
+	private void siftDown(int index, T element) {
+		while (true) {
+			long first = getFirstChild(index);
+			if (first > size) {
+				break;
+			}
+			int child = (int) first;
+			if (!hasSingleChild(index) && child < size && comp.compare(elementAt(child + 1), elementAt(child)) < 0) {
+				child++;
+			}
+			T childElement = elementAt(child);
+			if (comp.compare(childElement, element) >= 0) {
+				break;
+			}
+			contents[index] = childElement;
+			index = child;
+		}
+		contents[index] = element;
+	}
+
+	// Within a page, the node at offset o has its children at offsets 2o and
+	// 2o + 1. Offsets 0 and 1 of every page except the first are the roots of
+	// the page and have a single child each, at offsets 2 and 3. Nodes on the
+	// bottom row of a page have their children at the top of another page.
+	private int getParent(int index) {
+		int offset = index & pageMask;
+		if (index < pageSize || offset > 3) {
+			return (index & ~pageMask) | (offset >> 1);
+		}
+		if (offset < 2) {
+			int parent = (index - pageSize) >> pageShift;
+			parent += parent & ~(pageMask >> 1);
+			return parent | (pageSize >> 1);
+		}
+		return index - 2;
+	}
+
+	private long getFirstChild(int index) {
+		if (hasSingleChild(index)) {
+			return index + 2L;
+		}
+		if ((index & (pageSize >> 1)) != 0) {
+			long page = ((index & ~pageMask) >> 1 | (index & (pageMask >> 1))) + 1L;
+			return page << pageShift;
+		}
+		return (long) index + (index & pageMask);
+	}
+
+	private boolean hasSingleChild(int index) {
+		return index > pageMask && (index & (pageMask - 1)) == 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int index) {
+		return (T) contents[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+}
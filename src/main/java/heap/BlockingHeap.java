@@ -0,0 +1,312 @@
+package heap;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, blocking priority queue backed by an {@link ArrayHeap}. Consumers
+ * wait until an element becomes available and producers wait until there is
+ * room, which gives producer/consumer pipelines backpressure.
+ * <p>
+ * Unlike {@link Heap}, this class follows the {@link BlockingQueue} contract:
+ * poll and peek return null when the queue is empty, and null elements are
+ * rejected with a NullPointerException. All waiting is done on a
+ * {@link ReentrantLock} and its conditions rather than on a monitor, so
+ * waiting threads never pin the carrier thread of a virtual thread.
+ * <p>
+ * The iterator works on a snapshot of the contents in no particular order.
+ */
+public class BlockingHeap<T> extends AbstractQueue<T> implements BlockingQueue<T> {
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+	private final Comparator<T> comp;
+	private final int order;
+	private final int capacity;
+	private ArrayHeap<T> heap;
+
+	public BlockingHeap(int order, int capacity) {
+		this(order, (arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1), capacity);
+	}
+
+	public BlockingHeap(int order, Comparator<T> comp, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+		this.heap = new ArrayHeap<>(order, comp);
+		this.comp = comp;
+		this.order = order;
+		this.capacity = capacity;
+	}
+
+	@Override
+	public boolean offer(T t) {
+		checkNotNull(t);
+		lock.lock();
+		try {
+			if (heap.size() == capacity) {
+				return false;
+			}
+			enqueue(t);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void put(T t) throws InterruptedException {
+		checkNotNull(t);
+		lock.lockInterruptibly();
+		try {
+			while (heap.size() == capacity) {
+				notFull.await();
+			}
+			enqueue(t);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offer(T t, long timeout, TimeUnit unit) throws InterruptedException {
+		checkNotNull(t);
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (heap.size() == capacity) {
+				if (nanos <= 0) {
+					return false;
+				}
+				nanos = notFull.awaitNanos(nanos);
+			}
+			enqueue(t);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public T take() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while (heap.isEmpty()) {
+				notEmpty.await();
+			}
+			return dequeue();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (heap.isEmpty()) {
+				if (nanos <= 0) {
+					return null;
+				}
+				nanos = notEmpty.awaitNanos(nanos);
+			}
+			return dequeue();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public T poll() {
+		lock.lock();
+		try {
+			return heap.isEmpty() ? null : dequeue();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public T peek() {
+		lock.lock();
+		try {
+			return heap.isEmpty() ? null : heap.peek();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return heap.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int remainingCapacity() {
+		lock.lock();
+		try {
+			return capacity - heap.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int drainTo(Collection<? super T> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Removes at most maxElements elements, in priority order, and adds them
+	 * to the given collection. The whole batch is moved under a single lock
+	 * acquisition.
+	 */
+	@Override
+	public int drainTo(Collection<? super T> c, int maxElements) {
+		if (c == null) {
+			throw new NullPointerException("The provided collection must not be null");
+		}
+		if (c == this) {
+			throw new IllegalArgumentException("Cannot drain a queue into itself");
+		}
+		if (maxElements <= 0) {
+			return 0;
+		}
+		lock.lock();
+		int previousSize = heap.size();
+		try {
+			return heap.drainTo(c, maxElements);
+		} finally {
+			// Elements may have been removed even if the collection threw.
+			if (heap.size() < previousSize) {
+				notFull.signalAll();
+			}
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return removeMatching(o, false);
+	}
+
+	@Override
+	public void clear() {
+		lock.lock();
+		try {
+			heap = new ArrayHeap<>(order, comp);
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new SnapshotIterator(snapshot());
+	}
+
+	@Override
+	public Object[] toArray() {
+		return snapshot();
+	}
+
+	private Object[] snapshot() {
+		lock.lock();
+		try {
+			return heap.toArray();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Removing from the middle of the heap is rare enough that rebuilding the
+	// heap in linear time is preferable to tracking positions.
+	@SuppressWarnings("unchecked")
+	private boolean removeMatching(Object o, boolean identity) {
+		if (o == null) {
+			return false;
+		}
+		lock.lock();
+		try {
+			Object[] contents = heap.toArray();
+			for (int i = 0; i < contents.length; i++) {
+				if (identity ? contents[i] == o : o.equals(contents[i])) {
+					contents[i] = null;
+					heap = ArrayHeap.of(order, comp, (T[]) contents);
+					notFull.signal();
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void enqueue(T t) {
+		heap.offer(t);
+		notEmpty.signal();
+	}
+
+	private T dequeue() {
+		T t = heap.poll();
+		notFull.signal();
+		return t;
+	}
+
+	private void checkNotNull(T t) {
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+	}
+
+	private class SnapshotIterator implements Iterator<T> {
+
+		private final Object[] contents;
+		private int cursor;
+		private int lastReturned = -1;
+
+		private SnapshotIterator(Object[] contents) {
+			this.contents = contents;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return cursor < contents.length;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("No more elements");
+			}
+			lastReturned = cursor;
+			return (T) contents[cursor++];
+		}
+
+		@Override
+		public void remove() {
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
+			}
+			removeMatching(contents[lastReturned], true);
+			lastReturned = -1;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package heap;
+
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+/**
+ * A priority queue for elements whose priorities are small integers in the
+ * range [0, range). Every priority has its own FIFO bucket, and a two-level
+ * bitmap records which buckets are non-empty. Offer runs in constant time, and
+ * peek and poll find the lowest non-empty bucket with a couple of bit scans.
+ * Elements with equal priority are polled in the order they were offered.
+ */
+public class BucketQueue<T> implements Heap<T> {
+
+	private final ToIntFunction<? super T> priority;
+	private final ArrayDeque<T>[] buckets;
+	// Bit i of words is set if bucket i is non-empty, and bit j of summary is
+	// set if word j is non-zero.
+	private final long[] words;
+	private final long[] summary;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public BucketQueue(int range, ToIntFunction<? super T> priority) {
+		if (range < 1) {
+			throw new IllegalArgumentException("The range must be positive");
+		}
+		if (priority == null) {
+			throw new NullPointerException("The provided priority function must not be null");
+		}
+		this.priority = priority;
+		this.buckets = (ArrayDeque<T>[]) new ArrayDeque<?>[range];
+		this.words = new long[(range + Long.SIZE - 1) / Long.SIZE];
+		this.summary = new long[(words.length + Long.SIZE - 1) / Long.SIZE];
+	}
+
+	/**
+	 * Adds an element to the bucket of its priority.
+	 * 
+	 * @param t
+	 *            the element to add.
+	 * @return true if the element was added.
+	 * @throws IllegalArgumentException
+	 *             if the priority of the element is outside the range.
+	 */
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		int p = priority.applyAsInt(t);
+		if (p < 0 || p >= buckets.length) {
+			throw new IllegalArgumentException("The priority " + p + " is outside the range [0, " + buckets.length + ")");
+		}
+		ArrayDeque<T> bucket = buckets[p];
+		if (bucket == null) {
+			bucket = new ArrayDeque<>();
+			buckets[p] = bucket;
+		}
+		if (bucket.isEmpty()) {
+			int word = p / Long.SIZE;
+			words[word] |= 1L << p;
+			summary[word / Long.SIZE] |= 1L << word;
+		}
+		bucket.addLast(t);
+		size++;
+		return true;
+	}
+
+	@Override
+	public T peek() {
+		return buckets[lowestPriority()].peekFirst();
+	}
+
+	@Override
+	public T poll() {
+		int p = lowestPriority();
+		ArrayDeque<T> bucket = buckets[p];
+		T t = bucket.pollFirst();
+		if (bucket.isEmpty()) {
+			int word = p / Long.SIZE;
+			words[word] &= ~(1L << p);
+			if (words[word] == 0) {
+				summary[word / Long.SIZE] &= ~(1L << word);
+			}
+		}
+		size--;
+		return t;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private int lowestPriority() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		int s = 0;
+		while (summary[s] == 0) {
+			s++;
+		}
+		int word = s * Long.SIZE + Long.numberOfTrailingZeros(summary[s]);
+		return word * Long.SIZE + Long.numberOfTrailingZeros(words[word]);
+	}
+}
@@ -0,0 +1,231 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * A d-ary heap whose elements can be cancelled in constant time through the
+ * {@link Handle} returned when they are inserted. A cancelled element is only
+ * marked as dead and stays in the heap until it reaches the root, where peek
+ * and poll discard it. When the dead elements make up more than a given share
+ * of the heap, the live elements are compacted and the heap is rebuilt in
+ * linear time, so the memory used follows the number of live elements.
+ * <p>
+ * This suits workloads such as timers, where most elements are cancelled long
+ * before they would be polled.
+ */
+public class CancellableHeap<T> implements Heap<T> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final double DEFAULT_MAX_DEAD_RATIO = 0.5;
+
+	private final Comparator<T> comp;
+	private final int order;
+	private final double maxDeadRatio;
+	private Entry<T>[] contents;
+	// The number of stored entries, live or dead.
+	private int size;
+	private int dead;
+
+	public CancellableHeap(int order) {
+		this(order, (arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
+	}
+
+	public CancellableHeap(int order, Comparator<T> comp) {
+		this(order, comp, DEFAULT_MAX_DEAD_RATIO);
+	}
+
+	@SuppressWarnings("unchecked")
+	public CancellableHeap(int order, Comparator<T> comp, double maxDeadRatio) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (!(maxDeadRatio > 0 && maxDeadRatio < 1)) {
+			throw new IllegalArgumentException("The dead ratio must be between 0 and 1");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.contents = (Entry<T>[]) new Entry<?>[DEFAULT_CAPACITY];
+		this.order = order;
+		this.comp = comp;
+		this.maxDeadRatio = maxDeadRatio;
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		insert(t);
+		return true;
+	}
+
+	/**
+	 * Inserts an element and returns a handle with which it can be cancelled.
+	 * 
+	 * @param t
+	 *            the element to insert.
+	 * @return a handle which refers to the inserted element.
+	 * @throws NullPointerException
+	 *             if the element is null.
+	 */
+	public Handle<T> insert(T t) {
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+		if (size == contents.length) {
+			contents = Arrays.copyOf(contents, contents.length + (contents.length >> 1) + 1);
+		}
+		Entry<T> entry = new Entry<>(this, t);
+		siftUp(size++, entry);
+		return entry;
+	}
+
+	/**
+	 * Cancels the element referred to by the handle, if it is still in this
+	 * heap. The element is no longer counted by size, and will never be
+	 * returned by peek or poll.
+	 * 
+	 * @param handle
+	 *            a handle obtained from this heap.
+	 * @return true if the heap changed as a result of the call.
+	 */
+	public boolean cancel(Handle<T> handle) {
+		if (!(handle instanceof Entry) || ((Entry<?>) handle).owner != this) {
+			return false;
+		}
+		((Entry<?>) handle).owner = null;
+		dead++;
+		if (dead > maxDeadRatio * size) {
+			compact();
+		}
+		return true;
+	}
+
+	@Override
+	public T peek() {
+		discardDeadRoots();
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return contents[0].element;
+	}
+
+	@Override
+	public T poll() {
+		discardDeadRoots();
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		Entry<T> root = removeRoot();
+		root.owner = null;
+		return root.element;
+	}
+
+	@Override
+	public int size() {
+		return size - dead;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == dead;
+	}
+
+	private void discardDeadRoots() {
+		while (size > 0 && contents[0].owner == null) {
+			removeRoot();
+			dead--;
+		}
+	}
+
+	private Entry<T> removeRoot() {
+		Entry<T> root = contents[0];
+		Entry<T> last = contents[--size];
+		contents[size] = null;
+		if (size > 0) {
+			siftDown(0, last);
+		}
+		return root;
+	}
+
+	// Moves the live entries to the front, shrinks the array if it has become
+	// much larger than they need, and restores the heap property bottom-up.
+	private void compact() {
+		int live = 0;
+		for (int i = 0; i < size; i++) {
+			if (contents[i].owner != null) {
+				contents[live++] = contents[i];
+			}
+		}
+		Arrays.fill(contents, live, size, null);
+		size = live;
+		dead = 0;
+		int capacity = Math.max(DEFAULT_CAPACITY, live + (live >> 1) + 1);
+		if (contents.length > 2 * capacity) {
+			contents = Arrays.copyOf(contents, capacity);
+		}
+		if (size > 1) {
+			for (int i = (size - 2) / order; i >= 0; i--) {
+				siftDown(i, contents[i]);
+			}
+		}
+	}
+
+	private void siftUp(int index, Entry<T> entry) {
+		while (index > 0) {
+			int parent = (index - 1) / order;
+			Entry<T> parentEntry = contents[parent];
+			if (comp.compare(entry.element, parentEntry.element) >= 0) {
+				break;
+			}
+			contents[index] = parentEntry;
+			index = parent;
+		}
+		contents[index] = entry;
+	}
+
+	private void siftDown(int index, Entry<T> entry) {
+		while ((long) order * index + 1 < size) {
+			int first = order * index + 1;
+			int end = (int) Math.min((long) first + order, size);
+			int smallest = first;
+			for (int i = first + 1; i < end; i++) {
+				if (comp.compare(contents[i].element, contents[smallest].element) < 0) {
+					smallest = i;
+				}
+			}
+			Entry<T> child = contents[smallest];
+			if (comp.compare(child.element, entry.element) >= 0) {
+				break;
+			}
+			contents[index] = child;
+			index = smallest;
+		}
+		contents[index] = entry;
+	}
+
+	private static final class Entry<T> implements Handle<T> {
+
+		// Null once the element has been polled or cancelled.
+		private CancellableHeap<T> owner;
+		private final T element;
+
+		private Entry(CancellableHeap<T> owner, T element) {
+			this.owner = owner;
+			this.element = element;
+		}
+
+		@Override
+		public T get() {
+			return element;
+		}
+
+		@Override
+		public boolean isValid() {
+			return owner != null;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A d-ary min-heap of primitive doubles backed by a plain double array. Apart
+ * from growing the backing array, no operation allocates.
+ */
+public class DoubleHeap {
+
+	/**
+	 * Comparison function over primitive doubles, to avoid boxing.
+	 */
+	@FunctionalInterface
+	public interface DoubleComparator {
+		int compare(double a, double b);
+	}
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final DoubleComparator comp;
+	private final int order;
+	private double[] contents;
+	private int size;
+
+	public DoubleHeap(int order) {
+		this(order, Double::compare);
+	}
+
+	public DoubleHeap(int order, DoubleComparator comp) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.contents = new double[DEFAULT_CAPACITY];
+		this.order = order;
+		this.comp = comp;
+	}
+
+	public boolean offer(double value) {
+		if (size == contents.length) {
+			grow();
+		}
+		siftUp(size++, value);
+		return true;
+	}
+
+	public double peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return contents[0];
+	}
+
+	public double poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		double root = contents[0];
+		double last = contents[--size];
+		if (size > 0) {
+			siftDown(0, last);
+		}
+		return root;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	private void siftUp(int index, double value) {
+		while (index > 0) {
+			int parent = (index - 1) / order;
+			double parentValue = contents[parent];
+			if (comp.compare(value, parentValue) >= 0) {
+				break;
+			}
+			contents[index] = parentValue;
+			index = parent;
+		}
+		contents[index] = value;
+	}
+
+	private void siftDown(int index, double value) {
+		while (true) {
+			long firstChild = (long) order * index + 1;
+			if (firstChild >= size) {
+				break;
+			}
+			int child = (int) firstChild;
+			int end = (int) Math.min(firstChild + order, size);
+			int smallest = child;
+			for (int i = child + 1; i < end; i++) {
+				if (comp.compare(contents[i], contents[smallest]) < 0) {
+					smallest = i;
+				}
+			}
+			if (comp.compare(contents[smallest], value) >= 0) {
+				break;
+			}
+			contents[index] = contents[smallest];
+			index = smallest;
+		}
+		contents[index] = value;
+	}
+
+	private void grow() {
+		int newCapacity = contents.length + (contents.length >> 1) + 1;
+		if (newCapacity < 0) {
+			newCapacity = Integer.MAX_VALUE - 8;
+		}
+		contents = Arrays.copyOf(contents, newCapacity);
+	}
+}
@@ -0,0 +1,222 @@
+package heap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A heap which can hold more elements than fit in memory. New elements are
+ * collected in an in-memory {@link ArrayHeap} of bounded size. When it fills
+ * up, its contents are written to a temporary file as a sorted run. Polling
+ * merges the runs lazily: only the smallest unread element of every run is
+ * kept in memory.
+ * <p>
+ * The memory budget is the number of elements the in-memory heap may hold.
+ * To bound the number of open files, the shorter half of the runs is merged
+ * into a single run whenever their number reaches a limit. I/O errors are
+ * reported as {@link UncheckedIOException}, after which the contents of the
+ * heap are undefined. The heap must be closed to delete its temporary files.
+ */
+public class ExternalHeap<T> implements Heap<T>, Closeable {
+
+	private static final int MAX_RUNS = 64;
+
+	private final Comparator<T> comp;
+	private final RecordCodec<T> codec;
+	private final int memoryLimit;
+	private final int order;
+	private final Comparator<RunFile<T>> runComp;
+	private final Path directory;
+	private final ArrayHeap<T> buffer;
+	private final ArrayHeap<RunFile<T>> runs;
+	private int size;
+
+	public ExternalHeap(int order, Comparator<T> comp, RecordCodec<T> codec, int memoryLimit) {
+		this(order, comp, codec, memoryLimit, Paths.get(System.getProperty("java.io.tmpdir")));
+	}
+
+	public ExternalHeap(int order, Comparator<T> comp, RecordCodec<T> codec, int memoryLimit, Path directory) {
+		if (memoryLimit < 1) {
+			throw new IllegalArgumentException("The memory limit must be positive");
+		}
+		if (codec == null || directory == null) {
+			throw new NullPointerException("The codec and the directory must not be null");
+		}
+		this.buffer = new ArrayHeap<>(order, comp);
+		this.runComp = (a, b) -> comp.compare(a.peek(), b.peek());
+		this.runs = new ArrayHeap<>(order, runComp);
+		this.order = order;
+		this.comp = comp;
+		this.codec = codec;
+		this.memoryLimit = memoryLimit;
+		this.directory = directory;
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		if (size == Integer.MAX_VALUE) {
+			throw new IllegalStateException("Heap is full");
+		}
+		if (buffer.size() >= memoryLimit) {
+			spill();
+		}
+		buffer.offer(t);
+		size++;
+		return true;
+	}
+
+	@Override
+	public T peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return takeFromBuffer() ? buffer.peek() : runs.peek()
+				.peek();
+	}
+
+	@Override
+	public T poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		size--;
+		if (takeFromBuffer()) {
+			return buffer.poll();
+		}
+		RunFile<T> run = runs.poll();
+		try {
+			T t = run.next();
+			if (run.hasNext()) {
+				runs.offer(run);
+			} else {
+				run.close();
+			}
+			return t;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Deletes all temporary files and empties the heap.
+	 */
+	@Override
+	public void close() {
+		IOException failure = null;
+		while (!runs.isEmpty()) {
+			try {
+				runs.poll()
+						.close();
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+		while (!buffer.isEmpty()) {
+			buffer.poll();
+		}
+		size = 0;
+		if (failure != null) {
+			throw new UncheckedIOException(failure);
+		}
+	}
+
+	private boolean takeFromBuffer() {
+		if (runs.isEmpty()) {
+			return true;
+		}
+		return !buffer.isEmpty() && comp.compare(buffer.peek(), runs.peek()
+				.peek()) <= 0;
+	}
+
+	// Writes the in-memory heap to disk as a sorted run.
+	private void spill() {
+		try {
+			RunFile<T> run = RunFile.create(directory, codec);
+			try {
+				while (!buffer.isEmpty()) {
+					run.write(buffer.poll());
+				}
+				run.finish();
+			} catch (IOException e) {
+				closeQuietly(run, e);
+				throw e;
+			}
+			runs.offer(run);
+			if (runs.size() >= MAX_RUNS) {
+				mergeRuns();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Merging the shorter runs keeps the total amount of rewritten data
+	// proportional to n log n, rather than rewriting everything every time.
+	private void mergeRuns() throws IOException {
+		List<RunFile<T>> all = new ArrayList<>(runs.size());
+		while (!runs.isEmpty()) {
+			all.add(runs.poll());
+		}
+		all.sort(Comparator.comparingLong(RunFile::remaining));
+		ArrayHeap<RunFile<T>> shortest = new ArrayHeap<>(order, runComp);
+		for (int i = 0; i < all.size(); i++) {
+			(i < all.size() / 2 ? shortest : runs).offer(all.get(i));
+		}
+		RunFile<T> merged = null;
+		RunFile<T> run = null;
+		try {
+			merged = RunFile.create(directory, codec);
+			while (!shortest.isEmpty()) {
+				run = shortest.poll();
+				merged.write(run.next());
+				if (run.hasNext()) {
+					shortest.offer(run);
+				} else {
+					run.close();
+				}
+				run = null;
+			}
+			merged.finish();
+		} catch (IOException e) {
+			// The runs being merged are no longer in runs, so close cannot
+			// reach them.
+			closeQuietly(merged, e);
+			closeQuietly(run, e);
+			while (!shortest.isEmpty()) {
+				closeQuietly(shortest.poll(), e);
+			}
+			throw e;
+		}
+		runs.offer(merged);
+	}
+
+	private static void closeQuietly(RunFile<?> run, IOException failure) {
+		if (run == null) {
+			return;
+		}
+		try {
+			run.close();
+		} catch (IOException e) {
+			failure.addSuppressed(e);
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package heap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sorts sequences of elements which do not fit in memory. Sorted runs are
+ * formed by replacement selection on an {@link ArrayHeap}: an element that is
+ * not smaller than the last one written joins the current run, and any other
+ * element is held back for the next one. On random input this produces runs
+ * of about twice the memory budget, and already sorted input produces a
+ * single run. The runs are written to temporary files and then merged by a
+ * heap of runs, in as many passes as the fan-in requires.
+ * <p>
+ * The memory budget is the number of elements held in memory while forming
+ * runs. The fan-in is the number of runs merged at once, and so the number of
+ * files open at the same time. A sorter may be used for any number of sorts,
+ * but not by several threads at once.
+ */
+public class ExternalSorter<T> {
+
+	private static final int DEFAULT_FAN_IN = 64;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final int order;
+	private final Comparator<T> comp;
+	private final Comparator<RunFile<T>> runComp;
+	private final RecordCodec<T> codec;
+	private final int memoryLimit;
+	private final int fanIn;
+	private final Path directory;
+
+	public ExternalSorter(int order, Comparator<T> comp, RecordCodec<T> codec, int memoryLimit) {
+		this(order, comp, codec, memoryLimit, DEFAULT_FAN_IN, Paths.get(System.getProperty("java.io.tmpdir")));
+	}
+
+	public ExternalSorter(int order, Comparator<T> comp, RecordCodec<T> codec, int memoryLimit, int fanIn, Path directory) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (memoryLimit < 1) {
+			throw new IllegalArgumentException("The memory limit must be positive");
+		}
+		if (fanIn < 2) {
+			throw new IllegalArgumentException("The fan-in must be at least two");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		if (codec == null || directory == null) {
+			throw new NullPointerException("The codec and the directory must not be null");
+		}
+		this.order = order;
+		this.comp = comp;
+		this.runComp = (a, b) -> comp.compare(a.peek(), b.peek());
+		this.codec = codec;
+		this.memoryLimit = memoryLimit;
+		this.fanIn = fanIn;
+		this.directory = directory;
+	}
+
+	/**
+	 * Sorts the elements of the iterator and passes them to the consumer in
+	 * order. Null elements are ignored.
+	 * 
+	 * @param input
+	 *            the elements to sort.
+	 * @param output
+	 *            receives the sorted elements.
+	 * @throws IOException
+	 *             if a temporary file could not be written or read.
+	 */
+	public void sort(Iterator<? extends T> input, Consumer<? super T> output) throws IOException {
+		List<RunFile<T>> runs = new ArrayList<>();
+		try {
+			ArrayHeap<T> current = new ArrayHeap<>(order, comp);
+			while (current.size() < memoryLimit && input.hasNext()) {
+				current.offer(input.next());
+			}
+			if (!input.hasNext()) {
+				// Everything fits in memory.
+				while (!current.isEmpty()) {
+					output.accept(current.poll());
+				}
+				return;
+			}
+			formRuns(current, input, runs);
+			while (runs.size() > fanIn) {
+				runs.sort(Comparator.comparingLong(RunFile::remaining));
+				// The group stays in runs until it is merged, so that it is
+				// closed below if the merge fails.
+				List<RunFile<T>> group = new ArrayList<>(runs.subList(0, fanIn));
+				RunFile<T> merged = RunFile.create(directory, codec);
+				runs.add(merged);
+				merge(group, t -> {
+					try {
+						merged.write(t);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				merged.finish();
+				runs.subList(0, fanIn)
+						.clear();
+			}
+			merge(runs, output);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			for (RunFile<T> run : runs) {
+				run.close();
+			}
+		}
+	}
+
+	/**
+	 * Sorts a file of records written by the codec into another file. The
+	 * output file is created or replaced, so it must not be the input file.
+	 * 
+	 * @param in
+	 *            the file to sort.
+	 * @param out
+	 *            the file to write the sorted records to.
+	 * @throws IOException
+	 *             if a file could not be read or written.
+	 * @throws IllegalArgumentException
+	 *             if both paths locate the same file.
+	 */
+	public void sort(Path in, Path out) throws IOException {
+		if (Files.exists(out) && Files.isSameFile(in, out)) {
+			throw new IllegalArgumentException("The input and output files must not be the same");
+		}
+		try (InputStream source = new BufferedInputStream(Channels.newInputStream(FileChannel.open(in, StandardOpenOption.READ)), BUFFER_SIZE);
+				OutputStream target = new BufferedOutputStream(Channels.newOutputStream(FileChannel.open(out, StandardOpenOption.WRITE,
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)), BUFFER_SIZE)) {
+			DataInputStream dataIn = new DataInputStream(source);
+			DataOutputStream dataOut = new DataOutputStream(target);
+			Iterator<T> records = new Iterator<T>() {
+
+				@Override
+				public boolean hasNext() {
+					try {
+						source.mark(1);
+						boolean more = source.read() >= 0;
+						source.reset();
+						return more;
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+
+				@Override
+				public T next() {
+					try {
+						return codec.read(dataIn);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+			};
+			try {
+				sort(records, t -> {
+					try {
+						codec.write(t, dataOut);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			dataOut.flush();
+		}
+	}
+
+	// Replacement selection. The current heap and the elements held back for
+	// the next run never hold more than the memory limit together.
+	private void formRuns(ArrayHeap<T> current, Iterator<? extends T> input, List<RunFile<T>> runs) throws IOException {
+		List<T> next = new ArrayList<>();
+		while (!current.isEmpty()) {
+			RunFile<T> run = RunFile.create(directory, codec);
+			runs.add(run);
+			while (!current.isEmpty()) {
+				T last = current.poll();
+				run.write(last);
+				if (input.hasNext()) {
+					T t = input.next();
+					if (t == null) {
+						continue;
+					}
+					if (comp.compare(t, last) >= 0) {
+						current.offer(t);
+					} else {
+						next.add(t);
+					}
+				}
+			}
+			run.finish();
+			current = ArrayHeap.of(order, comp, next);
+			next.clear();
+		}
+	}
+
+	private void merge(List<RunFile<T>> group, Consumer<? super T> output) throws IOException {
+		ArrayHeap<RunFile<T>> heap = ArrayHeap.of(order, runComp, group);
+		while (!heap.isEmpty()) {
+			RunFile<T> run = heap.poll();
+			output.accept(run.next());
+			if (run.hasNext()) {
+				heap.offer(run);
+			} else {
+				run.close();
+			}
+		}
+	}
+}
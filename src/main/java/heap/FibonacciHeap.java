@@ -0,0 +1,311 @@
+package heap;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * A Fibonacci heap. Insert, meld and decreaseKey run in amortized constant
+ * time, while poll runs in amortized O(log n) time.
+ * <p>
+ * Handles passed to decreaseKey must come from this heap, or from a heap
+ * which has been melded into it.
+ */
+public class FibonacciHeap<T> implements Heap<T> {
+
+	// The degree of any node is at most log_phi(n), which is below 45 for any
+	// heap whose size fits in an int.
+	private static final int MAX_DEGREE = 46;
+
+	private final Comparator<T> comp;
+	private final Node<T>[] degreeTable;
+	private Node<T> min;
+	private int size;
+
+	public FibonacciHeap() {
+		this((arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
+	}
+
+	@SuppressWarnings("unchecked")
+	public FibonacciHeap(Comparator<T> comp) {
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.comp = comp;
+		this.degreeTable = (Node<T>[]) new Node<?>[MAX_DEGREE];
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		insert(t);
+		return true;
+	}
+
+	/**
+	 * Inserts an element and returns a handle to it.
+	 * 
+	 * @param t
+	 *            the element to insert.
+	 * @return a handle which refers to the inserted element.
+	 * @throws NullPointerException
+	 *             if the element is null.
+	 */
+	public Handle<T> insert(T t) {
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+		Node<T> node = new Node<>(t);
+		addToRootList(node);
+		size++;
+		return node;
+	}
+
+	@Override
+	public T peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return min.element;
+	}
+
+	@Override
+	public T poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		Node<T> z = min;
+		Node<T> child = z.child;
+		if (child != null) {
+			Node<T> current = child;
+			do {
+				current.parent = null;
+				current = current.right;
+			} while (current != child);
+			splice(z, child);
+			z.child = null;
+		}
+		Node<T> next = z.right;
+		unlink(z);
+		z.valid = false;
+		size--;
+		if (next == z) {
+			min = null;
+		} else {
+			min = next;
+			consolidate();
+		}
+		return z.element;
+	}
+
+	/**
+	 * Replaces the element referred to by the handle with one that is smaller
+	 * or equal.
+	 * 
+	 * @param handle
+	 *            a valid handle obtained from this heap.
+	 * @param t
+	 *            the new element.
+	 * @throws IllegalArgumentException
+	 *             if the handle is no longer valid, or if the new element is
+	 *             greater than the current one.
+	 */
+	@SuppressWarnings("unchecked")
+	public void decreaseKey(Handle<T> handle, T t) {
+		if (!(handle instanceof Node) || !handle.isValid()) {
+			throw new IllegalArgumentException("The handle is not valid");
+		}
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+		Node<T> x = (Node<T>) handle;
+		if (comp.compare(t, x.element) > 0) {
+			throw new IllegalArgumentException("The new element is greater than the current element");
+		}
+		x.element = t;
+		Node<T> y = x.parent;
+		if (y != null && comp.compare(x.element, y.element) < 0) {
+			cut(x, y);
+			cascadingCut(y);
+		}
+		if (comp.compare(x.element, min.element) < 0) {
+			min = x;
+		}
+	}
+
+	/**
+	 * Moves all elements of the other heap into this one, in constant time.
+	 * The other heap is left empty. Both heaps are expected to order their
+	 * elements the same way.
+	 * 
+	 * @param other
+	 *            the heap to meld into this one.
+	 */
+	public void meld(FibonacciHeap<T> other) {
+		if (other == this) {
+			throw new IllegalArgumentException("Cannot meld a heap with itself");
+		}
+		if (other.min == null) {
+			return;
+		}
+		if (min == null) {
+			min = other.min;
+		} else {
+			splice(min, other.min);
+			if (comp.compare(other.min.element, min.element) < 0) {
+				min = other.min;
+			}
+		}
+		size += other.size;
+		other.min = null;
+		other.size = 0;
+	}
+
+	// Links roots of equal degree until every root has a unique degree.
+	private void consolidate() {
+		int roots = 0;
+		Node<T> current = min;
+		do {
+			roots++;
+			current = current.right;
+		} while (current != min);
+
+		current = min;
+		for (int i = 0; i < roots; i++) {
+			Node<T> next = current.right;
+			Node<T> x = current;
+			int degree = x.degree;
+			while (degreeTable[degree] != null) {
+				Node<T> y = degreeTable[degree];
+				if (comp.compare(y.element, x.element) < 0) {
+					Node<T> temp = x;
+					x = y;
+					y = temp;
+				}
+				link(y, x);
+				degreeTable[degree] = null;
+				degree++;
+			}
+			degreeTable[degree] = x;
+			current = next;
+		}
+
+		min = null;
+		for (int i = 0; i < degreeTable.length; i++) {
+			Node<T> node = degreeTable[i];
+			if (node != null) {
+				if (min == null || comp.compare(node.element, min.element) < 0) {
+					min = node;
+				}
+				degreeTable[i] = null;
+			}
+		}
+	}
+
+	// Removes y from the root list and makes it a child of x.
+	private void link(Node<T> y, Node<T> x) {
+		unlink(y);
+		y.parent = x;
+		if (x.child == null) {
+			x.child = y;
+		} else {
+			splice(x.child, y);
+		}
+		x.degree++;
+		y.mark = false;
+	}
+
+	private void cut(Node<T> x, Node<T> y) {
+		if (x.right == x) {
+			y.child = null;
+		} else {
+			if (y.child == x) {
+				y.child = x.right;
+			}
+			unlink(x);
+		}
+		y.degree--;
+		x.parent = null;
+		x.mark = false;
+		splice(min, x);
+	}
+
+	private void cascadingCut(Node<T> y) {
+		Node<T> z = y.parent;
+		while (z != null) {
+			if (!y.mark) {
+				y.mark = true;
+				return;
+			}
+			cut(y, z);
+			y = z;
+			z = y.parent;
+		}
+	}
+
+	private void addToRootList(Node<T> node) {
+		if (min == null) {
+			min = node;
+		} else {
+			splice(min, node);
+			if (comp.compare(node.element, min.element) < 0) {
+				min = node;
+			}
+		}
+	}
+
+	// Joins two circular lists into one.
+	private static <T> void splice(Node<T> a, Node<T> b) {
+		Node<T> aRight = a.right;
+		Node<T> bLeft = b.left;
+		a.right = b;
+		b.left = a;
+		bLeft.right = aRight;
+		aRight.left = bLeft;
+	}
+
+	// Removes the node from its circular list, leaving it as a list of one.
+	private static <T> void unlink(Node<T> node) {
+		node.left.right = node.right;
+		node.right.left = node.left;
+		node.left = node;
+		node.right = node;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private static final class Node<T> implements Handle<T> {
+
+		private T element;
+		private Node<T> parent;
+		private Node<T> child;
+		private Node<T> left = this;
+		private Node<T> right = this;
+		private int degree;
+		private boolean mark;
+		private boolean valid = true;
+
+		private Node(T element) {
+			this.element = element;
+		}
+
+		@Override
+		public T get() {
+			return element;
+		}
+
+		@Override
+		public boolean isValid() {
+			return valid;
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package heap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * A thread-safe heap with exact ordering, built on an {@link ArrayHeap} using
+ * flat combining. Instead of every thread taking a lock and touching the heap
+ * itself, each thread publishes its operation in a slot of its own. Whichever
+ * thread manages to take the lock becomes the combiner: it applies all
+ * published operations in one pass and hands back the results, while the
+ * other threads wait on their own slots. The heap and the lock therefore
+ * stay in the cache of a single core, instead of moving between cores on
+ * every operation.
+ * <p>
+ * Every operation takes effect at some point between its call and its
+ * return, so the heap behaves exactly like a heap accessed under a lock.
+ * Slots of threads that stop using the heap are unlinked after a while, and
+ * linked again if the thread comes back.
+ */
+public class FlatCombiningHeap<T> implements Heap<T> {
+
+	private static final int NONE = 0;
+	private static final int OFFER = 1;
+	private static final int POLL = 2;
+	private static final int PEEK = 3;
+	private static final int POLL_N = 4;
+	// Every CLEANUP_INTERVAL passes, slots that have been idle for more than
+	// MAX_IDLE_PASSES passes are unlinked.
+	private static final int CLEANUP_INTERVAL = 64;
+	private static final int MAX_IDLE_PASSES = 256;
+	private static final Object EMPTY = new Object();
+
+	private final ArrayHeap<T> heap;
+	private final AtomicBoolean lock = new AtomicBoolean();
+	private final AtomicReference<Slot> slots = new AtomicReference<>();
+	private final ThreadLocal<Slot> slot = ThreadLocal.withInitial(Slot::new);
+	private volatile int size;
+	// Only accessed by the combiner.
+	private int pass;
+
+	public FlatCombiningHeap(int order) {
+		this.heap = new ArrayHeap<>(order);
+	}
+
+	public FlatCombiningHeap(int order, Comparator<T> comp) {
+		this.heap = new ArrayHeap<>(order, comp);
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		apply(OFFER, t);
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T poll() {
+		Object result = apply(POLL, null);
+		if (result == EMPTY) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return (T) result;
+	}
+
+	/**
+	 * Polls at most n elements and passes them to the action, smallest first.
+	 * The batch is polled as a single operation, so no other thread can empty
+	 * the heap partway through it. The action then runs in the calling
+	 * thread, outside the combining pass.
+	 * 
+	 * @param n
+	 *            the maximum number of elements to poll.
+	 * @param action
+	 *            receives the polled elements.
+	 * @return the number of elements polled.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public int pollN(int n, Consumer<? super T> action) {
+		if (n <= 0) {
+			return 0;
+		}
+		List<T> batch = (List<T>) apply(POLL_N, n);
+		batch.forEach(action);
+		return batch.size();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T peek() {
+		Object result = apply(PEEK, null);
+		if (result == EMPTY) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return (T) result;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	// Publishes the operation and waits until some combiner, possibly this
+	// thread, has applied it.
+	private Object apply(int operation, Object argument) {
+		Slot own = slot.get();
+		own.argument = argument;
+		own.request = operation;
+		while (true) {
+			if (!own.active) {
+				enlist(own);
+			}
+			if (!lock.get() && lock.compareAndSet(false, true)) {
+				try {
+					combine();
+				} finally {
+					lock.set(false);
+				}
+			} else {
+				while (own.request != NONE && own.active && lock.get()) {
+					Thread.yield();
+				}
+			}
+			if (own.request == NONE) {
+				break;
+			}
+		}
+		Object result = own.result;
+		own.result = null;
+		if (own.failure != null) {
+			RuntimeException failure = own.failure;
+			own.failure = null;
+			throw failure;
+		}
+		return result;
+	}
+
+	private void enlist(Slot own) {
+		own.active = true;
+		Slot head;
+		do {
+			head = slots.get();
+			own.next = head;
+		} while (!slots.compareAndSet(head, own));
+	}
+
+	private void combine() {
+		pass++;
+		Slot previous = null;
+		for (Slot current = slots.get(); current != null; current = current.next) {
+			int operation = current.request;
+			if (operation != NONE) {
+				execute(current, operation);
+				current.lastUsed = pass;
+				current.request = NONE;
+			} else if (previous != null && pass % CLEANUP_INTERVAL == 0 && pass - current.lastUsed > MAX_IDLE_PASSES) {
+				// The head is never unlinked, since new slots are pushed there
+				// concurrently. The slot is marked inactive only after it has
+				// been unlinked, so that its owner cannot link it again while
+				// it is still reachable.
+				previous.next = current.next;
+				current.active = false;
+				continue;
+			}
+			previous = current;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void execute(Slot request, int operation) {
+		try {
+			switch (operation) {
+			case OFFER:
+				heap.offer((T) request.argument);
+				request.argument = null;
+				break;
+			case POLL:
+				request.result = heap.isEmpty() ? EMPTY : heap.poll();
+				break;
+			case POLL_N:
+				List<T> batch = new ArrayList<>();
+				heap.pollN((Integer) request.argument, batch::add);
+				request.argument = null;
+				request.result = batch;
+				break;
+			default:
+				request.result = heap.isEmpty() ? EMPTY : heap.peek();
+				break;
+			}
+		} catch (RuntimeException e) {
+			// Thrown by the comparator. It is rethrown by the requesting thread.
+			request.failure = e;
+		}
+		size = heap.size();
+	}
+
+	private static final class Slot {
+
+		// The operation to apply, written by the owner and reset to NONE by
+		// the combiner once the result is ready. The other fields are
+		// published by the writes to it.
+		private volatile int request;
+		private volatile boolean active;
+		private Object argument;
+		private Object result;
+		private RuntimeException failure;
+		private int lastUsed;
+		private Slot next;
+	}
+}
@@ -0,0 +1,24 @@
+package heap;
+
+/**
+ * A reference to an element inside a heap, returned when the element is
+ * inserted. Heaps that hand out handles use them to locate the element again
+ * in later operations, such as changing its priority or removing it.
+ */
+public interface Handle<T> {
+
+	/**
+	 * Returns the element this handle refers to.
+	 * 
+	 * @return the element.
+	 */
+	T get();
+
+	/**
+	 * Returns true as long as the element is still in the heap that created
+	 * this handle, i.e. it has neither been polled nor removed.
+	 * 
+	 * @return true if the element is still in the heap.
+	 */
+	boolean isValid();
+}
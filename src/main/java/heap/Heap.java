@@ -1,5 +1,8 @@
 package heap;
 
+import java.util.Collection;
+import java.util.function.Consumer;
+
 public interface Heap<T> {
 
 	boolean offer(T t);
@@ -13,4 +16,54 @@ public interface Heap<T> {
 	default boolean isEmpty() {
 		return size() == 0;
 	}
+
+	/**
+	 * Offers every element of the collection.
+	 * 
+	 * @param c
+	 *            the elements to offer.
+	 * @return true if the heap changed as a result of the call.
+	 */
+	default boolean offerAll(Collection<? extends T> c) {
+		boolean changed = false;
+		for (T t : c) {
+			changed |= offer(t);
+		}
+		return changed;
+	}
+
+	/**
+	 * Polls at most n elements and passes them to the action, smallest first.
+	 * 
+	 * @param n
+	 *            the maximum number of elements to poll.
+	 * @param action
+	 *            receives the polled elements.
+	 * @return the number of elements polled.
+	 */
+	default int pollN(int n, Consumer<? super T> action) {
+		int polled = 0;
+		while (polled < n && !isEmpty()) {
+			action.accept(poll());
+			polled++;
+		}
+		return polled;
+	}
+
+	/**
+	 * Polls at most max elements and adds them to the collection, smallest
+	 * first.
+	 * 
+	 * @param c
+	 *            the collection to add the elements to.
+	 * @param max
+	 *            the maximum number of elements to poll.
+	 * @return the number of elements polled.
+	 */
+	default int drainTo(Collection<? super T> c, int max) {
+		if (c == null) {
+			throw new NullPointerException("The provided collection must not be null");
+		}
+		return pollN(max, c::add);
+	}
 }
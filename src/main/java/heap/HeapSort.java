@@ -0,0 +1,187 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts arrays and lists with an in-place d-ary heapsort, using the same sift
+ * as {@link ArrayHeap}. Sorting an array needs no memory beyond the array
+ * itself, and runs in O(n log n) time whatever the input. A larger order
+ * makes the heap shallower, which means fewer cache misses but more
+ * comparisons per level. The sort is not stable.
+ * <p>
+ * The parallel sort splits the array into one chunk per worker thread,
+ * heapsorts the chunks in a {@link ForkJoinPool}, and then merges them with a
+ * heap of chunk indices. The merge needs an auxiliary array of the same
+ * length. Like the sequential sort, it passes null elements to the
+ * comparator.
+ */
+public final class HeapSort {
+
+	private static final int DEFAULT_ORDER = 4;
+	// Arrays shorter than this are sorted by a single thread, and no chunk is
+	// made shorter than this.
+	private static final int MIN_CHUNK_SIZE = 1 << 13;
+
+	private HeapSort() {
+	}
+
+	public static <T extends Comparable<? super T>> void sort(T[] a) {
+		sort(a, DEFAULT_ORDER, Comparator.naturalOrder());
+	}
+
+	public static <T> void sort(T[] a, Comparator<? super T> comp) {
+		sort(a, DEFAULT_ORDER, comp);
+	}
+
+	/**
+	 * Sorts the array in place.
+	 * 
+	 * @param a
+	 *            the array to sort.
+	 * @param order
+	 *            the order of the heap used for sorting.
+	 * @param comp
+	 *            the comparator to sort by.
+	 */
+	public static <T> void sort(T[] a, int order, Comparator<? super T> comp) {
+		checkArguments(order, comp);
+		sortRange(a, 0, a.length, order, comp);
+	}
+
+	/**
+	 * Sorts the list. Its elements are copied into an array, which is sorted
+	 * in place and written back, the same way {@link List#sort} does.
+	 * 
+	 * @param list
+	 *            the list to sort.
+	 * @param order
+	 *            the order of the heap used for sorting.
+	 * @param comp
+	 *            the comparator to sort by.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> void sort(List<T> list, int order, Comparator<? super T> comp) {
+		checkArguments(order, comp);
+		Object[] a = list.toArray();
+		sortRange(a, 0, a.length, order, comp);
+		ListIterator<T> iterator = list.listIterator();
+		for (Object element : a) {
+			iterator.next();
+			iterator.set((T) element);
+		}
+	}
+
+	/**
+	 * Sorts the array using the common fork/join pool. Arrays that are too
+	 * short to be worth splitting are sorted in place by the calling thread.
+	 * 
+	 * @param a
+	 *            the array to sort.
+	 * @param order
+	 *            the order of the heap used for sorting.
+	 * @param comp
+	 *            the comparator to sort by.
+	 */
+	public static <T> void parallelSort(T[] a, int order, Comparator<? super T> comp) {
+		checkArguments(order, comp);
+		parallelSort(a, order, comp, Math.min(ForkJoinPool.getCommonPoolParallelism(), a.length / MIN_CHUNK_SIZE));
+	}
+
+	// Sorts the array as the given number of chunks, which tests can choose.
+	static <T> void parallelSort(T[] a, int order, Comparator<? super T> comp, int chunks) {
+		if (chunks < 2) {
+			sortRange(a, 0, a.length, order, comp);
+			return;
+		}
+		int[] bounds = new int[chunks + 1];
+		for (int i = 0; i <= chunks; i++) {
+			bounds[i] = (int) ((long) a.length * i / chunks);
+		}
+		ForkJoinPool.commonPool()
+				.invoke(new SortChunks<>(a, bounds, 0, chunks, order, comp));
+		// The heap holds the chunks which are not exhausted, ordered by the
+		// element at their current position.
+		int[] positions = Arrays.copyOf(bounds, chunks);
+		IntHeap heap = new IntHeap(order, (x, y) -> comp.compare(a[positions[x]], a[positions[y]]));
+		for (int i = 0; i < chunks; i++) {
+			if (positions[i] < bounds[i + 1]) {
+				heap.offer(i);
+			}
+		}
+		Object[] merged = new Object[a.length];
+		for (int i = 0; !heap.isEmpty(); i++) {
+			int chunk = heap.poll();
+			merged[i] = a[positions[chunk]++];
+			if (positions[chunk] < bounds[chunk + 1]) {
+				heap.offer(chunk);
+			}
+		}
+		System.arraycopy(merged, 0, a, 0, a.length);
+	}
+
+	// Builds a max-heap in the range by sifting with the reversed comparator,
+	// then repeatedly swaps its root to the end of the shrinking heap.
+	@SuppressWarnings("unchecked")
+	private static <T> void sortRange(Object[] a, int from, int to, int order, Comparator<? super T> comp) {
+		int n = to - from;
+		if (n < 2) {
+			return;
+		}
+		Comparator<T> reversed = (x, y) -> comp.compare(y, x);
+		for (int i = (n - 2) / order; i >= 0; i--) {
+			ArrayHeap.siftDown(a, from, n, order, i, (T) a[from + i], reversed);
+		}
+		for (int end = n - 1; end > 0; end--) {
+			T last = (T) a[from + end];
+			a[from + end] = a[from];
+			ArrayHeap.siftDown(a, from, end, order, 0, last, reversed);
+		}
+	}
+
+	private static void checkArguments(int order, Comparator<?> comp) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+	}
+
+	// Sorts the chunks from first to last, exclusive, splitting the work in
+	// half until a single chunk remains.
+	private static final class SortChunks<T> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Object[] a;
+		private final int[] bounds;
+		private final int first;
+		private final int last;
+		private final int order;
+		private final Comparator<? super T> comp;
+
+		private SortChunks(Object[] a, int[] bounds, int first, int last, int order, Comparator<? super T> comp) {
+			this.a = a;
+			this.bounds = bounds;
+			this.first = first;
+			this.last = last;
+			this.order = order;
+			this.comp = comp;
+		}
+
+		@Override
+		protected void compute() {
+			if (last - first == 1) {
+				sortRange(a, bounds[first], bounds[last], order, comp);
+				return;
+			}
+			int middle = (first + last) >>> 1;
+			invokeAll(new SortChunks<>(a, bounds, first, middle, order, comp), new SortChunks<>(a, bounds, middle, last, order, comp));
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * A d-ary heap which hands out a {@link Handle} for every inserted element and
+ * keeps track of where each element is stored. This allows the priority of an
+ * element to be changed, or the element to be removed, in O(log_d n) time.
+ */
+public class IndexedHeap<T> implements Heap<T> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final Comparator<T> comp;
+	private final int order;
+	private Entry<T>[] contents;
+	private int size;
+
+	public IndexedHeap(int order) {
+		this(order, (arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
+	}
+
+	@SuppressWarnings("unchecked")
+	public IndexedHeap(int order, Comparator<T> comp) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.contents = (Entry<T>[]) new Entry<?>[DEFAULT_CAPACITY];
+		this.order = order;
+		this.comp = comp;
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		insert(t);
+		return true;
+	}
+
+	/**
+	 * Inserts an element and returns a handle to it.
+	 * 
+	 * @param t
+	 *            the element to insert.
+	 * @return a handle which refers to the inserted element.
+	 * @throws NullPointerException
+	 *             if the element is null.
+	 */
+	public Handle<T> insert(T t) {
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+		if (size == contents.length) {
+			contents = Arrays.copyOf(contents, contents.length + (contents.length >> 1) + 1);
+		}
+		Entry<T> entry = new Entry<>(this, t);
+		siftUp(size++, entry);
+		return entry;
+	}
+
+	@Override
+	public T peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return contents[0].element;
+	}
+
+	@Override
+	public T poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		Entry<T> root = contents[0];
+		removeAt(0);
+		return root.element;
+	}
+
+	/**
+	 * Replaces the element referred to by the handle with one that is smaller
+	 * or equal, and moves it towards the root accordingly.
+	 * 
+	 * @param handle
+	 *            a valid handle obtained from this heap.
+	 * @param t
+	 *            the new element.
+	 * @throws IllegalArgumentException
+	 *             if the handle is not valid in this heap, or if the new
+	 *             element is greater than the current one.
+	 */
+	public void decreaseKey(Handle<T> handle, T t) {
+		Entry<T> entry = validate(handle);
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+		if (comp.compare(t, entry.element) > 0) {
+			throw new IllegalArgumentException("The new element is greater than the current element");
+		}
+		entry.element = t;
+		siftUp(entry.index, entry);
+	}
+
+	/**
+	 * Replaces the element referred to by the handle with one that is greater
+	 * or equal, and moves it away from the root accordingly.
+	 * 
+	 * @param handle
+	 *            a valid handle obtained from this heap.
+	 * @param t
+	 *            the new element.
+	 * @throws IllegalArgumentException
+	 *             if the handle is not valid in this heap, or if the new
+	 *             element is smaller than the current one.
+	 */
+	public void increaseKey(Handle<T> handle, T t) {
+		Entry<T> entry = validate(handle);
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+		if (comp.compare(t, entry.element) < 0) {
+			throw new IllegalArgumentException("The new element is smaller than the current element");
+		}
+		entry.element = t;
+		siftDown(entry.index, entry);
+	}
+
+	/**
+	 * Removes the element referred to by the handle, if it is still in this
+	 * heap.
+	 * 
+	 * @param handle
+	 *            a handle obtained from this heap.
+	 * @return true if the heap changed as a result of the call.
+	 */
+	public boolean remove(Handle<T> handle) {
+		if (!(handle instanceof Entry) || ((Entry<?>) handle).owner != this) {
+			return false;
+		}
+		removeAt(((Entry<?>) handle).index);
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Entry<T> validate(Handle<T> handle) {
+		if (!(handle instanceof Entry) || ((Entry<?>) handle).owner != this) {
+			throw new IllegalArgumentException("The handle is not valid in this heap");
+		}
+		return (Entry<T>) handle;
+	}
+
+	private void removeAt(int index) {
+		Entry<T> removed = contents[index];
+		removed.owner = null;
+		removed.index = -1;
+		Entry<T> last = contents[--size];
+		contents[size] = null;
+		if (index == size) {
+			return;
+		}
+		if (index > 0 && comp.compare(last.element, contents[getParent(index)].element) < 0) {
+			siftUp(index, last);
+		} else {
+			siftDown(index, last);
+		}
+	}
+
+	private void siftUp(int index, Entry<T> entry) {
+		while (index > 0) {
+			int parent = getParent(index);
+			Entry<T> parentEntry = contents[parent];
+			if (comp.compare(entry.element, parentEntry.element) >= 0) {
+				break;
+			}
+			place(index, parentEntry);
+			index = parent;
+		}
+		place(index, entry);
+	}
+
+	private void siftDown(int index, Entry<T> entry) {
+		while ((long) order * index + 1 < size) {
+			int first = order * index + 1;
+			int end = (int) Math.min((long) first + order, size);
+			int smallest = first;
+			for (int i = first + 1; i < end; i++) {
+				if (comp.compare(contents[i].element, contents[smallest].element) < 0) {
+					smallest = i;
+				}
+			}
+			Entry<T> child = contents[smallest];
+			if (comp.compare(child.element, entry.element) >= 0) {
+				break;
+			}
+			place(index, child);
+			index = smallest;
+		}
+		place(index, entry);
+	}
+
+	private void place(int index, Entry<T> entry) {
+		contents[index] = entry;
+		entry.index = index;
+	}
+
+	private int getParent(int index) {
+		return (index - 1) / order;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private static final class Entry<T> implements Handle<T> {
+
+		private IndexedHeap<T> owner;
+		private T element;
+		private int index;
+
+		private Entry(IndexedHeap<T> owner, T element) {
+			this.owner = owner;
+			this.element = element;
+		}
+
+		@Override
+		public T get() {
+			return element;
+		}
+
+		@Override
+		public boolean isValid() {
+			return owner != null;
+		}
+	}
+}
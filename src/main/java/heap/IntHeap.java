@@ -0,0 +1,125 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A d-ary min-heap of primitive ints backed by a plain int array. Apart from
+ * growing the backing array, no operation allocates.
+ */
+public class IntHeap {
+
+	/**
+	 * Comparison function over primitive ints, to avoid boxing.
+	 */
+	@FunctionalInterface
+	public interface IntComparator {
+		int compare(int a, int b);
+	}
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final IntComparator comp;
+	private final int order;
+	private int[] contents;
+	private int size;
+
+	public IntHeap(int order) {
+		this(order, Integer::compare);
+	}
+
+	public IntHeap(int order, IntComparator comp) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.contents = new int[DEFAULT_CAPACITY];
+		this.order = order;
+		this.comp = comp;
+	}
+
+	public boolean offer(int value) {
+		if (size == contents.length) {
+			grow();
+		}
+		siftUp(size++, value);
+		return true;
+	}
+
+	public int peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return contents[0];
+	}
+
+	public int poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		int root = contents[0];
+		int last = contents[--size];
+		if (size > 0) {
+			siftDown(0, last);
+		}
+		return root;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	private void siftUp(int index, int value) {
+		while (index > 0) {
+			int parent = (index - 1) / order;
+			int parentValue = contents[parent];
+			if (comp.compare(value, parentValue) >= 0) {
+				break;
+			}
+			contents[index] = parentValue;
+			index = parent;
+		}
+		contents[index] = value;
+	}
+
+	private void siftDown(int index, int value) {
+		while (true) {
+			long firstChild = (long) order * index + 1;
+			if (firstChild >= size) {
+				break;
+			}
+			int child = (int) firstChild;
+			int end = (int) Math.min(firstChild + order, size);
+			int smallest = child;
+			for (int i = child + 1; i < end; i++) {
+				if (comp.compare(contents[i], contents[smallest]) < 0) {
+					smallest = i;
+				}
+			}
+			if (comp.compare(contents[smallest], value) >= 0) {
+				break;
+			}
+			contents[index] = contents[smallest];
+			index = smallest;
+		}
+		contents[index] = value;
+	}
+
+	private void grow() {
+		int newCapacity = contents.length + (contents.length >> 1) + 1;
+		if (newCapacity < 0) {
+			newCapacity = Integer.MAX_VALUE - 8;
+		}
+		contents = Arrays.copyOf(contents, newCapacity);
+	}
+}
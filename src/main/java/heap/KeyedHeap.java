@@ -0,0 +1,152 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * A d-ary heap which orders its elements by a primitive key. The key is
+ * extracted once, when an element is offered, and stored in a long array
+ * beside the elements. Sifting then compares keys in that array only, and
+ * never touches the elements or calls a comparator.
+ */
+public class KeyedHeap<T> implements Heap<T> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final ToLongFunction<? super T> key;
+	private final int order;
+	private long[] keys;
+	private Object[] contents;
+	private int size;
+
+	public KeyedHeap(int order, ToLongFunction<? super T> key) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (key == null) {
+			throw new NullPointerException("The provided key function must not be null");
+		}
+		this.keys = new long[DEFAULT_CAPACITY];
+		this.contents = new Object[DEFAULT_CAPACITY];
+		this.order = order;
+		this.key = key;
+	}
+
+	/**
+	 * Creates a heap ordered by a double key, following the ordering of
+	 * {@link Double#compare}. The keys are stored as longs whose order matches
+	 * that of the doubles.
+	 * 
+	 * @param order
+	 *            the order of the heap.
+	 * @param key
+	 *            the function which extracts the key of an element.
+	 * @return an empty heap.
+	 */
+	public static <T> KeyedHeap<T> comparingDouble(int order, ToDoubleFunction<? super T> key) {
+		if (key == null) {
+			throw new NullPointerException("The provided key function must not be null");
+		}
+		return new KeyedHeap<>(order, t -> sortableBits(key.applyAsDouble(t)));
+	}
+
+	// Flips the magnitude bits of negative values, which turns the IEEE 754
+	// representation into a long with the same ordering.
+	private static long sortableBits(double value) {
+		long bits = Double.doubleToLongBits(value);
+		return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		if (size == contents.length) {
+			int capacity = contents.length + (contents.length >> 1) + 1;
+			keys = Arrays.copyOf(keys, capacity);
+			contents = Arrays.copyOf(contents, capacity);
+		}
+		siftUp(size++, key.applyAsLong(t), t);
+		return true;
+	}
+
+	@Override
+	public T peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return elementAt(0);
+	}
+
+	@Override
+	public T poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		T previousRoot = elementAt(0);
+		size--;
+		long lastKey = keys[size];
+		Object last = contents[size];
+		contents[size] = null;
+		if (size > 0) {
+			siftDown(0, lastKey, last);
+		}
+		return previousRoot;
+	}
+
+	private void siftUp(int index, long k, Object element) {
+		while (index > 0) {
+			int parent = (index - 1) / order;
+			long parentKey = keys[parent];
+			if (k >= parentKey) {
+				break;
+			}
+			keys[index] = parentKey;
+			contents[index] = contents[parent];
+			index = parent;
+		}
+		keys[index] = k;
+		contents[index] = element;
+	}
+
+	private void siftDown(int index, long k, Object element) {
+		while ((long) order * index + 1 < size) {
+			int first = order * index + 1;
+			int end = (int) Math.min((long) first + order, size);
+			int smallest = first;
+			long smallestKey = keys[first];
+			for (int i = first + 1; i < end; i++) {
+				if (keys[i] < smallestKey) {
+					smallest = i;
+					smallestKey = keys[i];
+				}
+			}
+			if (smallestKey >= k) {
+				break;
+			}
+			keys[index] = smallestKey;
+			contents[index] = contents[smallest];
+			index = smallest;
+		}
+		keys[index] = k;
+		contents[index] = element;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int index) {
+		return (T) contents[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+}
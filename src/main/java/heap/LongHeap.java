@@ -0,0 +1,125 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A d-ary min-heap of primitive longs backed by a plain long array. Apart
+ * from growing the backing array, no operation allocates.
+ */
+public class LongHeap {
+
+	/**
+	 * Comparison function over primitive longs, to avoid boxing.
+	 */
+	@FunctionalInterface
+	public interface LongComparator {
+		int compare(long a, long b);
+	}
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final LongComparator comp;
+	private final int order;
+	private long[] contents;
+	private int size;
+
+	public LongHeap(int order) {
+		this(order, Long::compare);
+	}
+
+	public LongHeap(int order, LongComparator comp) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.contents = new long[DEFAULT_CAPACITY];
+		this.order = order;
+		this.comp = comp;
+	}
+
+	public boolean offer(long value) {
+		if (size == contents.length) {
+			grow();
+		}
+		siftUp(size++, value);
+		return true;
+	}
+
+	public long peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return contents[0];
+	}
+
+	public long poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		long root = contents[0];
+		long last = contents[--size];
+		if (size > 0) {
+			siftDown(0, last);
+		}
+		return root;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	private void siftUp(int index, long value) {
+		while (index > 0) {
+			int parent = (index - 1) / order;
+			long parentValue = contents[parent];
+			if (comp.compare(value, parentValue) >= 0) {
+				break;
+			}
+			contents[index] = parentValue;
+			index = parent;
+		}
+		contents[index] = value;
+	}
+
+	private void siftDown(int index, long value) {
+		while (true) {
+			long firstChild = (long) order * index + 1;
+			if (firstChild >= size) {
+				break;
+			}
+			int child = (int) firstChild;
+			int end = (int) Math.min(firstChild + order, size);
+			int smallest = child;
+			for (int i = child + 1; i < end; i++) {
+				if (comp.compare(contents[i], contents[smallest]) < 0) {
+					smallest = i;
+				}
+			}
+			if (comp.compare(contents[smallest], value) >= 0) {
+				break;
+			}
+			contents[index] = contents[smallest];
+			index = smallest;
+		}
+		contents[index] = value;
+	}
+
+	private void grow() {
+		int newCapacity = contents.length + (contents.length >> 1) + 1;
+		if (newCapacity < 0) {
+			newCapacity = Integer.MAX_VALUE - 8;
+		}
+		contents = Arrays.copyOf(contents, newCapacity);
+	}
+}
@@ -0,0 +1,178 @@
+package heap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Merges several sorted iterators into a single sorted iterator, using a loser
+ * tree. Each element costs about log2(k) comparisons for k sources, and no
+ * objects are allocated per element. Elements that compare equal are returned
+ * in the order of their sources, so the merge is stable.
+ * <p>
+ * The sources are not read until the first call to hasNext or next, and must
+ * not contain null elements.
+ */
+public class MergingIterator<T> implements Iterator<T> {
+
+	private final Comparator<? super T> comp;
+	private final Iterator<? extends T>[] sources;
+	private final Object[] heads;
+	private final boolean[] exhausted;
+	// tree[0] is the index of the overall winner, and tree[1..k) holds the
+	// loser of the game played at each internal node.
+	private final int[] tree;
+	private boolean initialized;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public MergingIterator(Comparator<? super T> comp, List<? extends Iterator<? extends T>> sources) {
+		if (comp == null || sources == null) {
+			throw new NullPointerException("The comparator and the sources must not be null");
+		}
+		this.comp = comp;
+		this.sources = sources.toArray(new Iterator[sources.size()]);
+		this.heads = new Object[this.sources.length];
+		this.exhausted = new boolean[this.sources.length];
+		this.tree = new int[Math.max(1, this.sources.length)];
+	}
+
+	/**
+	 * Returns a lazy, ordered stream of the merged contents of the sorted
+	 * iterators.
+	 * 
+	 * @param comp
+	 *            the comparator the sources are sorted by.
+	 * @param sources
+	 *            the sorted iterators to merge.
+	 * @return a sorted stream.
+	 */
+	public static <T> Stream<T> merge(Comparator<? super T> comp, List<? extends Iterator<? extends T>> sources) {
+		MergingIterator<T> iterator = new MergingIterator<>(comp, sources);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Returns a lazy, ordered stream of the merged contents of the sorted
+	 * streams. Closing the returned stream closes all the sources.
+	 * 
+	 * @param comp
+	 *            the comparator the sources are sorted by.
+	 * @param sources
+	 *            the sorted streams to merge.
+	 * @return a sorted stream.
+	 */
+	public static <T> Stream<T> mergeStreams(Comparator<? super T> comp, List<? extends Stream<? extends T>> sources) {
+		List<Iterator<? extends T>> iterators = new ArrayList<>(sources.size());
+		for (Stream<? extends T> source : sources) {
+			iterators.add(source.iterator());
+		}
+		return merge(comp, iterators).onClose(() -> {
+			RuntimeException failure = null;
+			for (Stream<? extends T> source : sources) {
+				try {
+					source.close();
+				} catch (RuntimeException e) {
+					if (failure == null) {
+						failure = e;
+					} else {
+						failure.addSuppressed(e);
+					}
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+		});
+	}
+
+	@Override
+	public boolean hasNext() {
+		initialize();
+		return sources.length > 0 && !exhausted[tree[0]];
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("No more elements");
+		}
+		int winner = tree[0];
+		T result = (T) heads[winner];
+		advance(winner);
+		// Replays the games on the path from the winner's leaf to the root.
+		for (int node = (winner + sources.length) / 2; node > 0; node /= 2) {
+			int loser = tree[node];
+			if (beats(loser, winner)) {
+				tree[node] = winner;
+				winner = loser;
+			}
+		}
+		tree[0] = winner;
+		return result;
+	}
+
+	private void initialize() {
+		if (initialized) {
+			return;
+		}
+		initialized = true;
+		int k = sources.length;
+		for (int i = 0; i < k; i++) {
+			advance(i);
+		}
+		if (k == 0) {
+			return;
+		}
+		// The leaves are nodes k..2k-1, and winners holds the winner below each
+		// node while the tree is built.
+		int[] winners = new int[2 * k];
+		for (int i = 0; i < k; i++) {
+			winners[k + i] = i;
+		}
+		for (int node = k - 1; node > 0; node--) {
+			int a = winners[2 * node];
+			int b = winners[2 * node + 1];
+			if (beats(a, b)) {
+				winners[node] = a;
+				tree[node] = b;
+			} else {
+				winners[node] = b;
+				tree[node] = a;
+			}
+		}
+		tree[0] = k == 1 ? 0 : winners[1];
+	}
+
+	private void advance(int source) {
+		if (sources[source].hasNext()) {
+			T head = sources[source].next();
+			if (head == null) {
+				throw new NullPointerException("The sources must not contain null elements");
+			}
+			heads[source] = head;
+		} else {
+			heads[source] = null;
+			exhausted[source] = true;
+		}
+	}
+
+	// Exhausted sources lose every game, and ties go to the lower source index.
+	@SuppressWarnings("unchecked")
+	private boolean beats(int a, int b) {
+		if (exhausted[a]) {
+			return false;
+		}
+		if (exhausted[b]) {
+			return true;
+		}
+		int result = comp.compare((T) heads[a], (T) heads[b]);
+		return result < 0 || (result == 0 && a < b);
+	}
+}
@@ -0,0 +1,236 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * A double-ended heap stored in a single array. Nodes on even levels are
+ * smaller than all their descendants and nodes on odd levels are greater, so
+ * the smallest element is at the root and the greatest is one of its
+ * children. Both ends can be peeked in constant time and polled in O(log n)
+ * time. Peek and poll operate on the smallest element.
+ */
+public class MinMaxHeap<T> implements Heap<T> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final Comparator<T> comp;
+	private Object[] contents;
+	private int size;
+
+	public MinMaxHeap() {
+		this((arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
+	}
+
+	public MinMaxHeap(Comparator<T> comp) {
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.contents = new Object[DEFAULT_CAPACITY];
+		this.comp = comp;
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		if (size == contents.length) {
+			contents = Arrays.copyOf(contents, contents.length + (contents.length >> 1) + 1);
+		}
+		pushUp(size++, t);
+		return true;
+	}
+
+	@Override
+	public T peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return elementAt(0);
+	}
+
+	@Override
+	public T poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return removeAt(0);
+	}
+
+	/**
+	 * Returns the greatest element, but does not remove it.
+	 * 
+	 * @return the greatest element.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public T peekMax() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return elementAt(maxIndex());
+	}
+
+	/**
+	 * Returns and removes the greatest element.
+	 * 
+	 * @return the greatest element.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public T pollMax() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return removeAt(maxIndex());
+	}
+
+	private int maxIndex() {
+		if (size == 1) {
+			return 0;
+		}
+		if (size == 2 || comp.compare(elementAt(1), elementAt(2)) >= 0) {
+			return 1;
+		}
+		return 2;
+	}
+
+	// Only called for the root or one of its children, which are the only
+	// places the extremes can be.
+	private T removeAt(int index) {
+		T removed = elementAt(index);
+		T last = elementAt(--size);
+		contents[size] = null;
+		if (index < size) {
+			trickleDown(index, last, isMinLevel(index) ? 1 : -1);
+		}
+		return removed;
+	}
+
+	private void pushUp(int index, T element) {
+		if (index == 0) {
+			contents[0] = element;
+			return;
+		}
+		int parent = getParent(index);
+		T parentElement = elementAt(parent);
+		if (isMinLevel(index)) {
+			if (comp.compare(element, parentElement) > 0) {
+				contents[index] = parentElement;
+				pushUpMax(parent, element);
+			} else {
+				pushUpMin(index, element);
+			}
+		} else {
+			if (comp.compare(element, parentElement) < 0) {
+				contents[index] = parentElement;
+				pushUpMin(parent, element);
+			} else {
+				pushUpMax(index, element);
+			}
+		}
+	}
+
+	private void pushUpMin(int index, T element) {
+		while (index > 2) {
+			int grandparent = getParent(getParent(index));
+			T grandparentElement = elementAt(grandparent);
+			if (comp.compare(element, grandparentElement) >= 0) {
+				break;
+			}
+			contents[index] = grandparentElement;
+			index = grandparent;
+		}
+		contents[index] = element;
+	}
+
+	private void pushUpMax(int index, T element) {
+		while (index > 2) {
+			int grandparent = getParent(getParent(index));
+			T grandparentElement = elementAt(grandparent);
+			if (comp.compare(element, grandparentElement) <= 0) {
+				break;
+			}
+			contents[index] = grandparentElement;
+			index = grandparent;
+		}
+		contents[index] = element;
+	}
+
+	// The sign is 1 on min levels and -1 on max levels, and the element moves
+	// down past any descendant which should come before it.
+	private void trickleDown(int index, T element, int sign) {
+		while ((long) 2 * index + 1 < size) {
+			int m = extremeDescendant(index, sign);
+			T descendant = elementAt(m);
+			if (!before(descendant, element, sign)) {
+				break;
+			}
+			contents[index] = descendant;
+			if (m <= 2 * index + 2) {
+				// A child has no descendants that could come before the element.
+				index = m;
+				break;
+			}
+			int parent = getParent(m);
+			T parentElement = elementAt(parent);
+			if (before(parentElement, element, sign)) {
+				contents[parent] = element;
+				element = parentElement;
+			}
+			index = m;
+		}
+		contents[index] = element;
+	}
+
+	// Returns the index of the first (sign 1) or last (sign -1) element in
+	// order among the children and grandchildren of the index.
+	private int extremeDescendant(int index, int sign) {
+		int first = 2 * index + 1;
+		int best = first;
+		int end = (int) Math.min((long) first + 2, size);
+		for (int i = first + 1; i < end; i++) {
+			if (before(elementAt(i), elementAt(best), sign)) {
+				best = i;
+			}
+		}
+		long firstGrandchild = 4L * index + 3;
+		int grandchildEnd = (int) Math.min(firstGrandchild + 4, size);
+		for (int i = (int) Math.min(firstGrandchild, size); i < grandchildEnd; i++) {
+			if (before(elementAt(i), elementAt(best), sign)) {
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	private boolean before(T a, T b, int sign) {
+		int result = comp.compare(a, b);
+		return sign > 0 ? result < 0 : result > 0;
+	}
+
+	private static boolean isMinLevel(int index) {
+		return ((31 - Integer.numberOfLeadingZeros(index + 1)) & 1) == 0;
+	}
+
+	private static int getParent(int index) {
+		return (index - 1) / 2;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int index) {
+		return (T) contents[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+}
@@ -0,0 +1,225 @@
+package heap;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A thread-safe, relaxed priority queue built from several independently
+ * locked {@link ArrayHeap} shards. Offers go to a random shard, and polls
+ * compare the tops of two randomly chosen shards and take the better one.
+ * Threads therefore rarely contend for the same lock, and throughput scales
+ * with the number of threads.
+ * <p>
+ * The price is that the ordering is approximate. With c shards, the element
+ * returned by poll is expected to be among the O(c) smallest elements in the
+ * queue, and among the O(c log c) smallest with high probability. A queue
+ * with a single shard is exact. Peek and size are snapshots that may be stale
+ * by the time they return if other threads are modifying the queue.
+ */
+public class MultiQueue<T> implements Heap<T> {
+
+	private static final int LOCK_ATTEMPTS = 4;
+
+	private final Shard<T>[] shards;
+	private final Comparator<T> comp;
+	private final AtomicInteger size = new AtomicInteger();
+
+	public MultiQueue(int order) {
+		this(order, (arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
+	}
+
+	public MultiQueue(int order, Comparator<T> comp) {
+		this(order, comp, 2 * Runtime.getRuntime()
+				.availableProcessors());
+	}
+
+	@SuppressWarnings("unchecked")
+	public MultiQueue(int order, Comparator<T> comp, int shards) {
+		if (shards < 1) {
+			throw new IllegalArgumentException("The number of shards must be positive");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.comp = comp;
+		this.shards = (Shard<T>[]) new Shard<?>[shards];
+		for (int i = 0; i < shards; i++) {
+			this.shards[i] = new Shard<>(new ArrayHeap<>(order, comp));
+		}
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Shard<T> shard = null;
+		for (int attempt = 0; attempt < LOCK_ATTEMPTS; attempt++) {
+			Shard<T> candidate = shards[random.nextInt(shards.length)];
+			if (candidate.lock.tryLock()) {
+				shard = candidate;
+				break;
+			}
+		}
+		if (shard == null) {
+			shard = shards[random.nextInt(shards.length)];
+			shard.lock.lock();
+		}
+		try {
+			shard.heap.offer(t);
+			shard.top = shard.heap.peek();
+			// Counted only once the element can be found, so that a poll
+			// which sees a non-zero size also finds a published top. Counting
+			// under the lock keeps the size from going negative, since the
+			// element cannot be polled before the lock is released.
+			size.incrementAndGet();
+		} finally {
+			shard.lock.unlock();
+		}
+		return true;
+	}
+
+	@Override
+	public T poll() {
+		T polled = pollOrNull();
+		if (polled == null) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return polled;
+	}
+
+	/**
+	 * Polls at most n elements and passes them to the action, in the
+	 * approximate order of poll. Each element is polled under the lock of its
+	 * shard, so the batch ends early, instead of failing, if other threads
+	 * empty the queue in the meantime.
+	 * 
+	 * @param n
+	 *            the maximum number of elements to poll.
+	 * @param action
+	 *            receives the polled elements.
+	 * @return the number of elements polled.
+	 */
+	@Override
+	public int pollN(int n, Consumer<? super T> action) {
+		int polled = 0;
+		while (polled < n) {
+			T t = pollOrNull();
+			if (t == null) {
+				break;
+			}
+			action.accept(t);
+			polled++;
+		}
+		return polled;
+	}
+
+	// Returns null if the queue is empty, so that pollN can tell an empty
+	// queue apart without the check racing with other consumers.
+	private T pollOrNull() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (true) {
+			if (size.get() == 0) {
+				return null;
+			}
+			// Sampling misses when both shards are empty or the better one is
+			// locked. Either way, drawing two new shards is cheaper than
+			// waiting.
+			for (int attempt = 0; attempt < LOCK_ATTEMPTS; attempt++) {
+				Shard<T> best = better(shards[random.nextInt(shards.length)], shards[random.nextInt(shards.length)]);
+				if (best == null || !best.lock.tryLock()) {
+					continue;
+				}
+				try {
+					if (!best.heap.isEmpty()) {
+						return pollFrom(best);
+					}
+				} finally {
+					best.lock.unlock();
+				}
+			}
+			// Repeated misses, so the queue is probably nearly empty. Visit
+			// the non-empty shards without waiting for their locks, and report
+			// an empty queue only if no shard was skipped.
+			boolean contended = false;
+			int start = random.nextInt(shards.length);
+			for (int i = 0; i < shards.length; i++) {
+				Shard<T> shard = shards[(start + i) % shards.length];
+				if (shard.top == null) {
+					continue;
+				}
+				if (!shard.lock.tryLock()) {
+					contended = true;
+					continue;
+				}
+				try {
+					if (!shard.heap.isEmpty()) {
+						return pollFrom(shard);
+					}
+				} finally {
+					shard.lock.unlock();
+				}
+			}
+			if (!contended) {
+				return null;
+			}
+		}
+	}
+
+	@Override
+	public T peek() {
+		T best = null;
+		for (Shard<T> shard : shards) {
+			T top = shard.top;
+			if (top != null && (best == null || comp.compare(top, best) < 0)) {
+				best = top;
+			}
+		}
+		if (best == null) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return best;
+	}
+
+	@Override
+	public int size() {
+		return size.get();
+	}
+
+	private T pollFrom(Shard<T> shard) {
+		T polled = shard.heap.poll();
+		shard.top = shard.heap.isEmpty() ? null : shard.heap.peek();
+		size.decrementAndGet();
+		return polled;
+	}
+
+	private Shard<T> better(Shard<T> first, Shard<T> second) {
+		T firstTop = first.top;
+		T secondTop = second.top;
+		if (firstTop == null) {
+			return secondTop == null ? null : second;
+		}
+		if (secondTop == null) {
+			return first;
+		}
+		return comp.compare(firstTop, secondTop) <= 0 ? first : second;
+	}
+
+	private static final class Shard<T> {
+
+		private final ReentrantLock lock = new ReentrantLock();
+		private final ArrayHeap<T> heap;
+		// Published after every modification so that other threads can compare
+		// shards without taking their locks.
+		private volatile T top;
+
+		private Shard(ArrayHeap<T> heap) {
+			this.heap = heap;
+		}
+	}
+}
@@ -0,0 +1,297 @@
+package heap;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A d-ary min-heap of fixed-width records stored outside the Java heap. Every
+ * record consists of a long key, by which the heap is ordered, and a payload
+ * of a fixed number of bytes. Records live in direct byte buffers, so they are
+ * invisible to the garbage collector no matter how many there are.
+ * <p>
+ * The records are stored in pages, so the heap grows without copying and is
+ * not limited by the maximum size of a single buffer. The memory is released
+ * by {@link #close()}, after which the heap must not be used. On runtimes
+ * where a direct buffer cannot be freed explicitly, close drops the last
+ * reference to it and the memory is reclaimed when the buffer is collected.
+ * <p>
+ * This class does not implement {@link Heap}. A record is a key and a payload
+ * of raw bytes rather than an object, so offer takes both and poll copies the
+ * payload into a caller's buffer. Returning each record as an object would
+ * allocate on every poll, which defeats the purpose of keeping the records off
+ * the Java heap.
+ */
+public class OffHeapHeap implements AutoCloseable {
+
+	private static final int PAGE_BYTES = 1 << 20;
+	private static final int KEY_SIZE = Long.BYTES;
+
+	private final int order;
+	private final int payloadWidth;
+	private final int recordSize;
+	private final int pageShift;
+	private final int pageMask;
+	// Holds the record that is being sifted, so that the hole can move without
+	// swapping records.
+	private ByteBuffer scratch;
+	private ByteBuffer[] pages;
+	private int pageCount;
+	private int size;
+
+	public OffHeapHeap(int order, int payloadWidth) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (payloadWidth < 0) {
+			throw new IllegalArgumentException("The payload width must not be negative");
+		}
+		if (payloadWidth > Integer.MAX_VALUE - KEY_SIZE) {
+			throw new IllegalArgumentException("The payload width is too large");
+		}
+		this.order = order;
+		this.payloadWidth = payloadWidth;
+		this.recordSize = KEY_SIZE + payloadWidth;
+		this.pageShift = Integer.numberOfTrailingZeros(Integer.highestOneBit(Math.max(1, PAGE_BYTES / recordSize)));
+		this.pageMask = (1 << pageShift) - 1;
+		this.scratch = allocate(recordSize);
+		this.pages = new ByteBuffer[4];
+	}
+
+	/**
+	 * Inserts a record. The payload is read from the current position of the
+	 * given buffer, whose position is advanced by the payload width.
+	 * 
+	 * @param key
+	 *            the key of the record.
+	 * @param payload
+	 *            a buffer with at least payload width bytes remaining. May be
+	 *            null if the payload width is zero.
+	 * @return true if the record was added.
+	 */
+	public boolean offer(long key, ByteBuffer payload) {
+		ensureOpen();
+		if (payloadWidth > 0 && (payload == null || payload.remaining() < payloadWidth)) {
+			throw new IllegalArgumentException("The payload must contain " + payloadWidth + " bytes");
+		}
+		if (size == Integer.MAX_VALUE) {
+			throw new IllegalStateException("Heap is full");
+		}
+		if (size == (long) pageCount << pageShift) {
+			addPage();
+		}
+		scratch.putLong(0, key);
+		for (int i = 0; i < payloadWidth; i++) {
+			scratch.put(KEY_SIZE + i, payload.get());
+		}
+		siftUp(size++, key);
+		return true;
+	}
+
+	/**
+	 * Returns the smallest key in the heap.
+	 * 
+	 * @return the smallest key.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public long peekKey() {
+		ensureOpen();
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return pages[0].getLong(0);
+	}
+
+	/**
+	 * Copies the payload of the record with the smallest key into the given
+	 * buffer, advancing its position by the payload width.
+	 * 
+	 * @param dst
+	 *            the buffer to copy the payload into.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public void peekPayload(ByteBuffer dst) {
+		ensureOpen();
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		copyPayload(pages[0], 0, dst);
+	}
+
+	/**
+	 * Removes the record with the smallest key. Its payload is copied into the
+	 * given buffer, unless the buffer is null.
+	 * 
+	 * @param dst
+	 *            the buffer to copy the payload into, or null.
+	 * @return the key of the removed record.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public long poll(ByteBuffer dst) {
+		ensureOpen();
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		long key = pages[0].getLong(0);
+		if (dst != null) {
+			copyPayload(pages[0], 0, dst);
+		}
+		size--;
+		if (size > 0) {
+			copyRecord(page(size), offset(size), scratch, 0);
+			siftDown(0, scratch.getLong(0));
+		}
+		return key;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Releases the memory used by the heap. The heap must not be used
+	 * afterwards. Calling close more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if (pages == null) {
+			return;
+		}
+		for (int i = 0; i < pageCount; i++) {
+			free(pages[i]);
+		}
+		free(scratch);
+		pages = null;
+		scratch = null;
+		pageCount = 0;
+		size = 0;
+	}
+
+	// The record being sifted is held in the scratch buffer.
+	private void siftUp(int index, long key) {
+		while (index > 0) {
+			int parent = (index - 1) / order;
+			ByteBuffer parentPage = page(parent);
+			int parentOffset = offset(parent);
+			if (key >= parentPage.getLong(parentOffset)) {
+				break;
+			}
+			copyRecord(parentPage, parentOffset, page(index), offset(index));
+			index = parent;
+		}
+		copyRecord(scratch, 0, page(index), offset(index));
+	}
+
+	private void siftDown(int index, long key) {
+		while ((long) order * index + 1 < size) {
+			int first = order * index + 1;
+			int end = (int) Math.min((long) first + order, size);
+			int smallest = first;
+			long smallestKey = keyAt(first);
+			for (int i = first + 1; i < end; i++) {
+				long candidate = keyAt(i);
+				if (candidate < smallestKey) {
+					smallest = i;
+					smallestKey = candidate;
+				}
+			}
+			if (smallestKey >= key) {
+				break;
+			}
+			copyRecord(page(smallest), offset(smallest), page(index), offset(index));
+			index = smallest;
+		}
+		copyRecord(scratch, 0, page(index), offset(index));
+	}
+
+	private long keyAt(int index) {
+		return page(index).getLong(offset(index));
+	}
+
+	private ByteBuffer page(int index) {
+		return pages[index >>> pageShift];
+	}
+
+	private int offset(int index) {
+		return (index & pageMask) * recordSize;
+	}
+
+	private void copyRecord(ByteBuffer src, int srcOffset, ByteBuffer dst, int dstOffset) {
+		int i = 0;
+		for (; i + Long.BYTES <= recordSize; i += Long.BYTES) {
+			dst.putLong(dstOffset + i, src.getLong(srcOffset + i));
+		}
+		for (; i < recordSize; i++) {
+			dst.put(dstOffset + i, src.get(srcOffset + i));
+		}
+	}
+
+	private void copyPayload(ByteBuffer src, int srcOffset, ByteBuffer dst) {
+		if (payloadWidth == 0) {
+			return;
+		}
+		if (dst == null || dst.remaining() < payloadWidth) {
+			throw new IllegalArgumentException("The buffer must have room for " + payloadWidth + " bytes");
+		}
+		for (int i = 0; i < payloadWidth; i++) {
+			dst.put(src.get(srcOffset + KEY_SIZE + i));
+		}
+	}
+
+	private void addPage() {
+		if (pageCount == pages.length) {
+			pages = Arrays.copyOf(pages, pages.length * 2);
+		}
+		pages[pageCount++] = allocate(recordSize << pageShift);
+	}
+
+	private void ensureOpen() {
+		if (pages == null) {
+			throw new IllegalStateException("The heap has been closed");
+		}
+	}
+
+	private static ByteBuffer allocate(int bytes) {
+		return ByteBuffer.allocateDirect(bytes)
+				.order(ByteOrder.nativeOrder());
+	}
+
+	// Frees a direct buffer right away where the runtime allows it: through
+	// Unsafe.invokeCleaner on Java 9 and later, and through the buffer's
+	// cleaner on Java 8. Otherwise the buffer is left to the garbage collector.
+	private static void free(ByteBuffer buffer) {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			invokeCleaner.invoke(theUnsafe.get(null), buffer);
+			return;
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Not available before Java 9, try the Java 8 way below.
+		}
+		try {
+			Method cleanerMethod = buffer.getClass()
+					.getMethod("cleaner");
+			cleanerMethod.setAccessible(true);
+			Object cleaner = cleanerMethod.invoke(buffer);
+			if (cleaner != null) {
+				cleaner.getClass()
+						.getMethod("clean")
+						.invoke(cleaner);
+			}
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Leave the buffer to the garbage collector.
+		}
+	}
+}
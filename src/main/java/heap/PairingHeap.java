@@ -0,0 +1,228 @@
+package heap;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * A node-based pairing heap. Insert, meld and decreaseKey run in constant
+ * (amortized) time, while poll runs in amortized O(log n) time using the
+ * two-pass pairing strategy.
+ * <p>
+ * Handles passed to decreaseKey must come from this heap, or from a heap
+ * which has been melded into it.
+ */
+public class PairingHeap<T> implements Heap<T> {
+
+	private final Comparator<T> comp;
+	private Node<T> root;
+	private int size;
+
+	public PairingHeap() {
+		this((arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
+	}
+
+	public PairingHeap(Comparator<T> comp) {
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.comp = comp;
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		insert(t);
+		return true;
+	}
+
+	/**
+	 * Inserts an element and returns a handle to it.
+	 * 
+	 * @param t
+	 *            the element to insert.
+	 * @return a handle which refers to the inserted element.
+	 * @throws NullPointerException
+	 *             if the element is null.
+	 */
+	public Handle<T> insert(T t) {
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+		Node<T> node = new Node<>(t);
+		root = root == null ? node : link(root, node);
+		size++;
+		return node;
+	}
+
+	@Override
+	public T peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return root.element;
+	}
+
+	@Override
+	public T poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		Node<T> previousRoot = root;
+		root = combineSiblings(previousRoot.child);
+		previousRoot.child = null;
+		previousRoot.valid = false;
+		size--;
+		return previousRoot.element;
+	}
+
+	/**
+	 * Replaces the element referred to by the handle with one that is smaller
+	 * or equal.
+	 * 
+	 * @param handle
+	 *            a valid handle obtained from this heap.
+	 * @param t
+	 *            the new element.
+	 * @throws IllegalArgumentException
+	 *             if the handle is no longer valid, or if the new element is
+	 *             greater than the current one.
+	 */
+	@SuppressWarnings("unchecked")
+	public void decreaseKey(Handle<T> handle, T t) {
+		if (!(handle instanceof Node) || !handle.isValid()) {
+			throw new IllegalArgumentException("The handle is not valid");
+		}
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+		Node<T> node = (Node<T>) handle;
+		if (comp.compare(t, node.element) > 0) {
+			throw new IllegalArgumentException("The new element is greater than the current element");
+		}
+		node.element = t;
+		if (node == root) {
+			return;
+		}
+		if (node.prev.child == node) {
+			node.prev.child = node.next;
+		} else {
+			node.prev.next = node.next;
+		}
+		if (node.next != null) {
+			node.next.prev = node.prev;
+		}
+		node.next = null;
+		node.prev = null;
+		root = link(root, node);
+	}
+
+	/**
+	 * Moves all elements of the other heap into this one, in constant time.
+	 * The other heap is left empty. Both heaps are expected to order their
+	 * elements the same way.
+	 * 
+	 * @param other
+	 *            the heap to meld into this one.
+	 */
+	public void meld(PairingHeap<T> other) {
+		if (other == this) {
+			throw new IllegalArgumentException("Cannot meld a heap with itself");
+		}
+		if (other.root != null) {
+			root = root == null ? other.root : link(root, other.root);
+			size += other.size;
+			other.root = null;
+			other.size = 0;
+		}
+	}
+
+	// Links two detached trees, making the larger root the leftmost child of
+	// the smaller one.
+	private Node<T> link(Node<T> a, Node<T> b) {
+		if (comp.compare(b.element, a.element) < 0) {
+			Node<T> temp = a;
+			a = b;
+			b = temp;
+		}
+		b.next = a.child;
+		if (a.child != null) {
+			a.child.prev = b;
+		}
+		b.prev = a;
+		a.child = b;
+		return a;
+	}
+
+	// Two-pass pairing: links siblings pairwise from left to right, then links
+	// the resulting trees from right to left.
+	private Node<T> combineSiblings(Node<T> first) {
+		if (first == null) {
+			return null;
+		}
+		Node<T> pairs = null;
+		while (first != null) {
+			Node<T> a = first;
+			Node<T> b = a.next;
+			a.prev = null;
+			a.next = null;
+			Node<T> merged;
+			if (b == null) {
+				first = null;
+				merged = a;
+			} else {
+				first = b.next;
+				b.prev = null;
+				b.next = null;
+				merged = link(a, b);
+			}
+			merged.next = pairs;
+			pairs = merged;
+		}
+		Node<T> result = pairs;
+		pairs = pairs.next;
+		result.next = null;
+		while (pairs != null) {
+			Node<T> next = pairs.next;
+			pairs.next = null;
+			result = link(result, pairs);
+			pairs = next;
+		}
+		return result;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private static final class Node<T> implements Handle<T> {
+
+		private T element;
+		private Node<T> child;
+		private Node<T> next;
+		// The previous sibling, or the parent for the leftmost child.
+		private Node<T> prev;
+		private boolean valid = true;
+
+		private Node(T element) {
+			this.element = element;
+		}
+
+		@Override
+		public T get() {
+			return element;
+		}
+
+		@Override
+		public boolean isValid() {
+			return valid;
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package heap;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable leftist heap. Inserting, deleting and merging do not modify
+ * the heap, but return a new version of it which shares all unchanged nodes
+ * with the old one. Every version stays valid, so taking a snapshot is free,
+ * and versions can be shared between threads without any locking.
+ * <p>
+ * Every node stores the length of the shortest path from it to a missing
+ * child, its rank, and the rank of a left child is never smaller than that
+ * of its sibling. The rightmost path therefore has at most log2(n + 1)
+ * nodes, and insert, deleteMin and merge only rebuild the nodes on the
+ * rightmost paths, in O(log n) time and space.
+ */
+public final class PersistentHeap<T> {
+
+	private final Comparator<T> comp;
+	private final Node<T> root;
+
+	public PersistentHeap() {
+		this((arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
+	}
+
+	public PersistentHeap(Comparator<T> comp) {
+		this(comp, null);
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+	}
+
+	private PersistentHeap(Comparator<T> comp, Node<T> root) {
+		this.comp = comp;
+		this.root = root;
+	}
+
+	/**
+	 * Returns a version of this heap which also contains the element.
+	 * 
+	 * @param t
+	 *            the element to insert.
+	 * @return the new version.
+	 * @throws NullPointerException
+	 *             if the element is null.
+	 */
+	public PersistentHeap<T> insert(T t) {
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+		return new PersistentHeap<>(comp, merge(root, new Node<>(t, null, null)));
+	}
+
+	/**
+	 * Returns the smallest element.
+	 * 
+	 * @return the smallest element.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public T peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return root.element;
+	}
+
+	/**
+	 * Returns a version of this heap without its smallest element.
+	 * 
+	 * @return the new version.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public PersistentHeap<T> deleteMin() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return new PersistentHeap<>(comp, merge(root.left, root.right));
+	}
+
+	/**
+	 * Returns a heap containing the elements of both heaps, ordered by the
+	 * comparator of this heap. Both heaps are expected to order their elements
+	 * the same way.
+	 * 
+	 * @param other
+	 *            the heap to merge with.
+	 * @return the merged heap.
+	 */
+	public PersistentHeap<T> merge(PersistentHeap<T> other) {
+		return new PersistentHeap<>(comp, merge(root, other.root));
+	}
+
+	public int size() {
+		return root == null ? 0 : root.size;
+	}
+
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	// Merges along the rightmost paths, so the recursion is no deeper than
+	// their combined length.
+	private Node<T> merge(Node<T> a, Node<T> b) {
+		if (a == null) {
+			return b;
+		}
+		if (b == null) {
+			return a;
+		}
+		if (comp.compare(b.element, a.element) < 0) {
+			Node<T> temp = a;
+			a = b;
+			b = temp;
+		}
+		return new Node<>(a.element, a.left, merge(a.right, b));
+	}
+
+	private static int rank(Node<?> node) {
+		return node == null ? 0 : node.rank;
+	}
+
+	private static int size(Node<?> node) {
+		return node == null ? 0 : node.size;
+	}
+
+	private static final class Node<T> {
+
+		private final T element;
+		private final Node<T> left;
+		private final Node<T> right;
+		private final int rank;
+		private final int size;
+
+		// Swaps the children if needed to keep the higher rank on the left.
+		private Node(T element, Node<T> a, Node<T> b) {
+			this.element = element;
+			if (rank(a) >= rank(b)) {
+				this.left = a;
+				this.right = b;
+			} else {
+				this.left = b;
+				this.right = a;
+			}
+			this.rank = rank(this.right) + 1;
+			this.size = size(a) + size(b) + 1;
+		}
+	}
+}
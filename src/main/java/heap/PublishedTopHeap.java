@@ -0,0 +1,119 @@
+package heap;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A thread-safe heap backed by an {@link ArrayHeap}, for heaps that are read
+ * far more often than they are modified. Offer and poll take a lock. After
+ * every modification, the smallest element and the size are published
+ * together in a single volatile field, so peek, size and isEmpty never lock:
+ * they cost one volatile read, and are neither blocked by writers nor slow
+ * them down.
+ * <p>
+ * Because the smallest element and the size are published together, the
+ * reads are consistent with each other and with the writes, exactly as if
+ * every operation had taken the lock.
+ */
+public class PublishedTopHeap<T> implements Heap<T> {
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final ArrayHeap<T> heap;
+	private volatile State<T> state = new State<>(null, 0);
+
+	public PublishedTopHeap(int order) {
+		this.heap = new ArrayHeap<>(order);
+	}
+
+	public PublishedTopHeap(int order, Comparator<T> comp) {
+		this.heap = new ArrayHeap<>(order, comp);
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		lock.lock();
+		try {
+			heap.offer(t);
+			publish();
+		} finally {
+			lock.unlock();
+		}
+		return true;
+	}
+
+	@Override
+	public T poll() {
+		lock.lock();
+		try {
+			if (heap.isEmpty()) {
+				throw new NoSuchElementException("Heap underflow");
+			}
+			T polled = heap.poll();
+			publish();
+			return polled;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Polls at most n elements and passes them to the action, smallest first.
+	 * The whole batch is polled under the lock, so no other thread can empty
+	 * the heap partway through it.
+	 * 
+	 * @param n
+	 *            the maximum number of elements to poll.
+	 * @param action
+	 *            receives the polled elements.
+	 * @return the number of elements polled.
+	 */
+	@Override
+	public int pollN(int n, Consumer<? super T> action) {
+		lock.lock();
+		try {
+			return heap.pollN(n, action);
+		} finally {
+			publish();
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public T peek() {
+		T top = state.top;
+		if (top == null) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return top;
+	}
+
+	@Override
+	public int size() {
+		return state.size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return state.size == 0;
+	}
+
+	private void publish() {
+		state = new State<>(heap.isEmpty() ? null : heap.peek(), heap.size());
+	}
+
+	private static final class State<T> {
+
+		private final T top;
+		private final int size;
+
+		private State(T top, int size) {
+			this.top = top;
+			this.size = size;
+		}
+	}
+}
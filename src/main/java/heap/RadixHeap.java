@@ -0,0 +1,174 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * A radix heap for elements with long keys, for use when the keys polled from
+ * the heap never decrease, as in event simulations and Dijkstra's algorithm.
+ * Offer runs in constant time and poll in amortized O(log C) time, where C is
+ * the range of the keys, and neither calls a comparator.
+ * <p>
+ * Offering an element whose key is smaller than the key of the last polled
+ * element is not allowed and throws an IllegalArgumentException. Elements with
+ * equal keys are polled in no particular order.
+ */
+public class RadixHeap<T> implements Heap<T> {
+
+	private static final int BUCKETS = Long.SIZE + 1;
+	private static final int DEFAULT_BUCKET_CAPACITY = 4;
+
+	private final ToLongFunction<? super T> key;
+	// Bucket 0 holds keys equal to last, and bucket i holds keys whose highest
+	// bit differing from last is bit i - 1.
+	private final long[][] keys = new long[BUCKETS][];
+	private final Object[][] values = new Object[BUCKETS][];
+	private final int[] sizes = new int[BUCKETS];
+	private long last = Long.MIN_VALUE;
+	private int size;
+
+	public RadixHeap(ToLongFunction<? super T> key) {
+		if (key == null) {
+			throw new NullPointerException("The provided key function must not be null");
+		}
+		this.key = key;
+		for (int i = 0; i < BUCKETS; i++) {
+			keys[i] = new long[DEFAULT_BUCKET_CAPACITY];
+			values[i] = new Object[DEFAULT_BUCKET_CAPACITY];
+		}
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		return offer(key.applyAsLong(t), t);
+	}
+
+	/**
+	 * Offers an element with an explicitly given key, bypassing the key
+	 * function.
+	 * 
+	 * @param k
+	 *            the key of the element.
+	 * @param t
+	 *            the element.
+	 * @return true if the element was added.
+	 * @throws IllegalArgumentException
+	 *             if the key is smaller than the key of the last polled
+	 *             element.
+	 */
+	public boolean offer(long k, T t) {
+		if (t == null) {
+			return false;
+		}
+		if (k < last) {
+			throw new IllegalArgumentException("The key " + k + " is smaller than the last polled key " + last);
+		}
+		add(bucketOf(k), k, t);
+		size++;
+		return true;
+	}
+
+	@Override
+	public T peek() {
+		return elementAt(minBucket(), minIndex(minBucket()));
+	}
+
+	/**
+	 * Returns the key of the element that would be polled next.
+	 * 
+	 * @return the smallest key in the heap.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public long peekKey() {
+		int bucket = minBucket();
+		return keys[bucket][minIndex(bucket)];
+	}
+
+	@Override
+	public T poll() {
+		int bucket = minBucket();
+		if (bucket > 0) {
+			redistribute(bucket);
+		}
+		int index = --sizes[0];
+		T t = elementAt(0, index);
+		values[0][index] = null;
+		size--;
+		return t;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private int bucketOf(long k) {
+		return Long.SIZE - Long.numberOfLeadingZeros(k ^ last);
+	}
+
+	private int minBucket() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		int bucket = 0;
+		while (sizes[bucket] == 0) {
+			bucket++;
+		}
+		return bucket;
+	}
+
+	private int minIndex(int bucket) {
+		if (bucket == 0) {
+			return sizes[0] - 1;
+		}
+		long[] bucketKeys = keys[bucket];
+		int min = 0;
+		for (int i = 1; i < sizes[bucket]; i++) {
+			if (bucketKeys[i] < bucketKeys[min]) {
+				min = i;
+			}
+		}
+		return min;
+	}
+
+	// Moves the smallest key of the bucket to last, which sends every element
+	// of the bucket to a lower bucket.
+	private void redistribute(int bucket) {
+		long[] bucketKeys = keys[bucket];
+		Object[] bucketValues = values[bucket];
+		int count = sizes[bucket];
+		last = bucketKeys[minIndex(bucket)];
+		sizes[bucket] = 0;
+		for (int i = 0; i < count; i++) {
+			add(bucketOf(bucketKeys[i]), bucketKeys[i], bucketValues[i]);
+			bucketValues[i] = null;
+		}
+	}
+
+	private void add(int bucket, long k, Object t) {
+		int index = sizes[bucket];
+		if (index == keys[bucket].length) {
+			int capacity = index * 2;
+			keys[bucket] = Arrays.copyOf(keys[bucket], capacity);
+			values[bucket] = Arrays.copyOf(values[bucket], capacity);
+		}
+		keys[bucket][index] = k;
+		values[bucket][index] = t;
+		sizes[bucket] = index + 1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int bucket, int index) {
+		return (T) values[bucket][index];
+	}
+}
@@ -0,0 +1,35 @@
+package heap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Converts elements to and from a binary representation, so that they can be
+ * written to disk by the external-memory data structures.
+ */
+public interface RecordCodec<T> {
+
+	/**
+	 * Writes a single element.
+	 * 
+	 * @param t
+	 *            the element to write.
+	 * @param out
+	 *            the destination.
+	 * @throws IOException
+	 *             if the element could not be written.
+	 */
+	void write(T t, DataOutput out) throws IOException;
+
+	/**
+	 * Reads a single element, previously written by {@link #write}.
+	 * 
+	 * @param in
+	 *            the source.
+	 * @return the element that was read.
+	 * @throws IOException
+	 *             if the element could not be read.
+	 */
+	T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,108 @@
+package heap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+// A temporary file holding a sorted run of elements. It is first written from
+// start to end, and then read back one element at a time. The file is deleted
+// when the run is closed.
+final class RunFile<T> implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final Path file;
+	private final RecordCodec<T> codec;
+	private DataOutputStream out;
+	private DataInputStream in;
+	private long written;
+	private long remaining;
+	private T head;
+
+	private RunFile(Path file, RecordCodec<T> codec) throws IOException {
+		this.file = file;
+		this.codec = codec;
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+	}
+
+	static <T> RunFile<T> create(Path directory, RecordCodec<T> codec) throws IOException {
+		Path file = Files.createTempFile(directory, "run", ".tmp");
+		try {
+			return new RunFile<>(file, codec);
+		} catch (IOException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+	}
+
+	void write(T t) throws IOException {
+		codec.write(t, out);
+		written++;
+	}
+
+	// Ends the writing phase and positions the run at its first element.
+	void finish() throws IOException {
+		out.close();
+		out = null;
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+		in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+		remaining = written;
+		advance();
+	}
+
+	// The number of elements left to read, including the current head.
+	long remaining() {
+		return head == null ? 0 : remaining + 1;
+	}
+
+	boolean hasNext() {
+		return head != null;
+	}
+
+	T peek() {
+		if (head == null) {
+			throw new NoSuchElementException("Run exhausted");
+		}
+		return head;
+	}
+
+	T next() throws IOException {
+		T current = peek();
+		advance();
+		return current;
+	}
+
+	private void advance() throws IOException {
+		if (remaining == 0) {
+			head = null;
+			return;
+		}
+		head = codec.read(in);
+		remaining--;
+	}
+
+	@Override
+	public void close() throws IOException {
+		head = null;
+		try {
+			if (out != null) {
+				out.close();
+			}
+			if (in != null) {
+				in.close();
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * A d-ary heap which returns elements that compare equal in the order they
+ * were offered. Every element is given an increasing sequence number, which
+ * is stored in a long array beside the elements and breaks ties while
+ * sifting. No objects are allocated per element.
+ */
+public class StableHeap<T> implements Heap<T> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final Comparator<T> comp;
+	private final int order;
+	private long[] sequences;
+	private Object[] contents;
+	private int size;
+	private long nextSequence;
+
+	public StableHeap(int order) {
+		this(order, (arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
+	}
+
+	public StableHeap(int order, Comparator<T> comp) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.sequences = new long[DEFAULT_CAPACITY];
+		this.contents = new Object[DEFAULT_CAPACITY];
+		this.order = order;
+		this.comp = comp;
+	}
+
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		if (size == contents.length) {
+			int capacity = contents.length + (contents.length >> 1) + 1;
+			sequences = Arrays.copyOf(sequences, capacity);
+			contents = Arrays.copyOf(contents, capacity);
+		}
+		siftUp(size++, nextSequence++, t);
+		return true;
+	}
+
+	@Override
+	public T peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return elementAt(0);
+	}
+
+	@Override
+	public T poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		T previousRoot = elementAt(0);
+		size--;
+		long lastSequence = sequences[size];
+		T last = elementAt(size);
+		contents[size] = null;
+		if (size > 0) {
+			siftDown(0, lastSequence, last);
+		}
+		return previousRoot;
+	}
+
+	private void siftUp(int index, long sequence, T element) {
+		while (index > 0) {
+			int parent = (index - 1) / order;
+			if (!before(element, sequence, parent)) {
+				break;
+			}
+			sequences[index] = sequences[parent];
+			contents[index] = contents[parent];
+			index = parent;
+		}
+		sequences[index] = sequence;
+		contents[index] = element;
+	}
+
+	private void siftDown(int index, long sequence, T element) {
+		while ((long) order * index + 1 < size) {
+			int first = order * index + 1;
+			int end = (int) Math.min((long) first + order, size);
+			int smallest = first;
+			for (int i = first + 1; i < end; i++) {
+				if (before(elementAt(i), sequences[i], smallest)) {
+					smallest = i;
+				}
+			}
+			if (!before(elementAt(smallest), sequences[smallest], element, sequence)) {
+				break;
+			}
+			sequences[index] = sequences[smallest];
+			contents[index] = contents[smallest];
+			index = smallest;
+		}
+		sequences[index] = sequence;
+		contents[index] = element;
+	}
+
+	private boolean before(T element, long sequence, int index) {
+		return before(element, sequence, elementAt(index), sequences[index]);
+	}
+
+	// Sequence numbers are unique, so two entries are never equal.
+	private boolean before(T a, long aSequence, T b, long bSequence) {
+		int result = comp.compare(a, b);
+		return result < 0 || (result == 0 && aSequence < bSequence);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int index) {
+		return (T) contents[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+}
@@ -0,0 +1,74 @@
+package heap;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Collects the k greatest elements of a stream into a list, greatest first.
+ * Every thread of a parallel stream fills its own {@link TopKHeap}, and the
+ * heaps are merged pairwise in the combiner.
+ */
+public class TopKCollector<T> implements Collector<T, TopKHeap<T>, List<T>> {
+
+	private static final int DEFAULT_ORDER = 4;
+
+	private final int k;
+	private final Comparator<T> comp;
+
+	private TopKCollector(int k, Comparator<T> comp) {
+		if (k < 1) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.k = k;
+		this.comp = comp;
+	}
+
+	public static <T extends Comparable<? super T>> Collector<T, ?, List<T>> topK(int k) {
+		return new TopKCollector<T>(k, Comparator.naturalOrder());
+	}
+
+	public static <T> Collector<T, ?, List<T>> topK(int k, Comparator<T> comp) {
+		return new TopKCollector<>(k, comp);
+	}
+
+	@Override
+	public Supplier<TopKHeap<T>> supplier() {
+		return () -> new TopKHeap<>(DEFAULT_ORDER, k, comp);
+	}
+
+	@Override
+	public BiConsumer<TopKHeap<T>, T> accumulator() {
+		return TopKHeap::offer;
+	}
+
+	@Override
+	public BinaryOperator<TopKHeap<T>> combiner() {
+		return (heap1, heap2) -> {
+			TopKHeap<T> larger = heap1.size() >= heap2.size() ? heap1 : heap2;
+			TopKHeap<T> smaller = larger == heap1 ? heap2 : heap1;
+			larger.offerContentsOf(smaller);
+			return larger;
+		};
+	}
+
+	@Override
+	public Function<TopKHeap<T>, List<T>> finisher() {
+		return TopKHeap::toSortedList;
+	}
+
+	@Override
+	public Set<Characteristics> characteristics() {
+		return Collections.unmodifiableSet(EnumSet.of(Characteristics.UNORDERED));
+	}
+}
@@ -0,0 +1,186 @@
+package heap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A d-ary heap with a fixed capacity k which retains the k greatest elements
+ * offered to it. The root is the smallest of the retained elements, so once
+ * the heap is full, a candidate which is not greater than the root is
+ * rejected without touching the heap, and one which is greater replaces the
+ * root with a single sift.
+ */
+public class TopKHeap<T> implements Heap<T> {
+
+	private final Comparator<T> comp;
+	private final int order;
+	private final Object[] contents;
+	private int size;
+
+	public TopKHeap(int order, int k) {
+		this(order, k, (arg0, arg1) -> ((Comparable<? super T>) arg0).compareTo((T) arg1));
+	}
+
+	public TopKHeap(int order, int k, Comparator<T> comp) {
+		if (order < 1) {
+			throw new IllegalArgumentException("The order must be positive");
+		}
+		if (k < 1) {
+			throw new IllegalArgumentException("The capacity must be positive");
+		}
+		if (comp == null) {
+			throw new NullPointerException("The provided comparator must not be null");
+		}
+		this.contents = new Object[k];
+		this.order = order;
+		this.comp = comp;
+	}
+
+	/**
+	 * Offers an element to the heap. If the heap is full, the element is only
+	 * added if it is greater than the smallest retained element, which is then
+	 * discarded.
+	 * 
+	 * @param t
+	 *            the element to offer.
+	 * @return true if the element was retained.
+	 */
+	@Override
+	public boolean offer(T t) {
+		if (t == null) {
+			return false;
+		}
+		if (size < contents.length) {
+			siftUp(size++, t);
+			return true;
+		}
+		if (comp.compare(t, elementAt(0)) <= 0) {
+			return false;
+		}
+		siftDown(0, t);
+		return true;
+	}
+
+	/**
+	 * Replaces the smallest retained element with the given one, regardless of
+	 * how they compare, using a single sift.
+	 * 
+	 * @param t
+	 *            the new element.
+	 * @return the element which was replaced.
+	 * @throws NoSuchElementException
+	 *             if the heap is empty.
+	 */
+	public T replaceTop(T t) {
+		if (t == null) {
+			throw new NullPointerException("The element must not be null");
+		}
+		T previousRoot = peek();
+		siftDown(0, t);
+		return previousRoot;
+	}
+
+	@Override
+	public T peek() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		return elementAt(0);
+	}
+
+	@Override
+	public T poll() {
+		if (isEmpty()) {
+			throw new NoSuchElementException("Heap underflow");
+		}
+		T previousRoot = elementAt(0);
+		T last = elementAt(--size);
+		contents[size] = null;
+		if (size > 0) {
+			siftDown(0, last);
+		}
+		return previousRoot;
+	}
+
+	/**
+	 * Returns the retained elements, greatest first. The heap is unchanged.
+	 * 
+	 * @return a list of the retained elements in descending order.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> toSortedList() {
+		T[] sorted = (T[]) Arrays.copyOf(contents, size);
+		Arrays.sort(sorted, comp.reversed());
+		return new ArrayList<>(Arrays.asList(sorted));
+	}
+
+	// Offers the elements of the other heap straight from its array, instead
+	// of polling them out of it. Once this heap is full, an element that does
+	// not beat the root costs a single comparison. The other heap is left
+	// unchanged.
+	@SuppressWarnings("unchecked")
+	void offerContentsOf(TopKHeap<T> other) {
+		for (int i = 0; i < other.size; i++) {
+			offer((T) other.contents[i]);
+		}
+	}
+
+	public int capacity() {
+		return contents.length;
+	}
+
+	public boolean isFull() {
+		return size == contents.length;
+	}
+
+	private void siftUp(int index, T element) {
+		while (index > 0) {
+			int parent = (index - 1) / order;
+			T parentElement = elementAt(parent);
+			if (comp.compare(element, parentElement) >= 0) {
+				break;
+			}
+			contents[index] = parentElement;
+			index = parent;
+		}
+		contents[index] = element;
+	}
+
+	private void siftDown(int index, T element) {
+		while ((long) order * index + 1 < size) {
+			int first = order * index + 1;
+			int end = (int) Math.min((long) first + order, size);
+			int smallest = first;
+			for (int i = first + 1; i < end; i++) {
+				if (comp.compare(elementAt(i), elementAt(smallest)) < 0) {
+					smallest = i;
+				}
+			}
+			T child = elementAt(smallest);
+			if (comp.compare(child, element) >= 0) {
+				break;
+			}
+			contents[index] = child;
+			index = smallest;
+		}
+		contents[index] = element;
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int index) {
+		return (T) contents[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+}
@@ -2,6 +2,14 @@ package heap;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.junit.Test;
@@ -54,4 +62,205 @@ public class ArrayHeapTest extends HeapTest<ArrayHeap<Integer>> {
 			assertEquals("Custom comparator is not working (natural order)", i, (int) heap2.poll());
 		}
 	}
+
+	@Test
+	public void testRandomNumbersWithDuplicatesAllOrders() {
+		Random random = new Random(42);
+		for (int order = 1; order < 10; order++) {
+			Heap<Integer> heap = createInstance(order);
+			int[] values = random.ints(1000, 0, 100)
+					.toArray();
+			for (int value : values) {
+				heap.offer(value);
+			}
+			Arrays.sort(values);
+			for (int i = 0; i < values.length; i++) {
+				assertEquals("Polling does not work correctly", values[i], (int) heap.poll());
+				assertEquals("Size is not updated correctly", values.length - (i + 1), heap.size());
+			}
+		}
+	}
+
+	@Test
+	public void testBulkConstruction() {
+		Random random = new Random(42);
+		for (int order = 1; order < 10; order++) {
+			List<Integer> values = new ArrayList<>();
+			random.ints(1000, 0, 500)
+					.forEach(values::add);
+			values.add(null);
+			Heap<Integer> heap = ArrayHeap.of(order, values);
+			assertEquals("Null elements are not ignored", 1000, heap.size());
+			values.remove(null);
+			Collections.sort(values);
+			for (int value : values) {
+				assertEquals("Bulk construction does not produce a valid heap", value, (int) heap.poll());
+			}
+		}
+	}
+
+	@Test
+	public void testBulkConstructionFromArray() {
+		Integer[] values = { 5, 3, null, 9, 1, 7 };
+		Heap<Integer> heap = ArrayHeap.of(2, Integer::compare, values);
+		assertEquals("Null elements are not ignored", 5, heap.size());
+		assertEquals("The array was modified", 5, (int) values[0]);
+		for (int expected : new int[] { 1, 3, 5, 7, 9 }) {
+			assertEquals("Bulk construction does not produce a valid heap", expected, (int) heap.poll());
+		}
+		heap = ArrayHeap.of(3, Integer::compare, new Integer[0]);
+		assertTrue(heap.isEmpty());
+		heap.offer(4);
+		assertEquals(4, (int) heap.poll());
+	}
+
+	@Test
+	public void testReorder() {
+		ArrayHeap<Integer> heap = ArrayHeap.of(4, IntStream.range(0, 100)
+				.boxed()
+				.collect(Collectors.toList()));
+		heap.reorder((a, b) -> Integer.compare(b, a));
+		for (int i = 0; i < 50; i++) {
+			assertEquals("Reordering to reverse order does not work", 99 - i, (int) heap.poll());
+		}
+		heap.reorder(Integer::compare);
+		heap.offer(-1);
+		assertEquals("Reordering back to natural order does not work", -1, (int) heap.poll());
+		for (int i = 0; i < 50; i++) {
+			assertEquals("Reordering back to natural order does not work", i, (int) heap.poll());
+		}
+	}
+
+	@Test
+	public void testBatchOperationsAllOrders() {
+		Random random = new Random(42);
+		for (int order = 1; order < 6; order++) {
+			ArrayHeap<Integer> heap = createInstance(order);
+			List<Integer> expected = new ArrayList<>();
+			for (int round = 0; round < 50; round++) {
+				List<Integer> batch = new ArrayList<>();
+				int batchSize = random.nextInt(round % 5 == 0 ? 500 : 10);
+				for (int i = 0; i < batchSize; i++) {
+					batch.add(random.nextInt(1000));
+				}
+				heap.offerAll(batch);
+				expected.addAll(batch);
+				Collections.sort(expected);
+				List<Integer> polled = new ArrayList<>();
+				int n = random.nextInt(expected.size() + 1);
+				assertEquals("Wrong number of polled elements", n, heap.pollN(n, polled::add));
+				assertEquals("Batch polling does not work for order " + order, expected.subList(0, n), polled);
+				expected.subList(0, n)
+						.clear();
+				assertEquals("Size is not updated correctly", expected.size(), heap.size());
+			}
+			for (int value : expected) {
+				assertEquals("Heap is broken after batch operations", value, (int) heap.poll());
+			}
+		}
+	}
+
+	@Test
+	public void testPollNKeepsHeapWhenActionThrows() {
+		IntStream.range(0, 100)
+				.forEach(heap::offer);
+		List<Integer> polled = new ArrayList<>();
+		boolean exceptionThrown = false;
+		try {
+			heap.pollN(100, t -> {
+				if (t == 60) {
+					throw new IllegalStateException();
+				}
+				polled.add(t);
+			});
+		} catch (IllegalStateException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("The exception thrown by the action was not rethrown", exceptionThrown);
+		assertEquals("Polled elements are wrong", 60, polled.size());
+		assertEquals("The element being consumed was not removed", 39, heap.size());
+		for (int i = 61; i < 100; i++) {
+			assertEquals("Heap is broken after a failed batch poll", i, (int) heap.poll());
+		}
+	}
+
+	@Test
+	public void testPollNActionUsesHeap() {
+		IntStream.range(0, 10)
+				.forEach(heap::offer);
+		List<Integer> polled = new ArrayList<>();
+		// The action sees the heap without the batch, and offers the even
+		// elements again, as a retrying consumer would.
+		heap.pollN(10, t -> {
+			if (!heap.isEmpty()) {
+				assertTrue("Peek returned an element of the batch", heap.peek() >= 100);
+			}
+			polled.add(t);
+			if (t % 2 == 0) {
+				heap.offer(t + 100);
+			}
+		});
+		assertEquals("Polled elements are wrong", IntStream.range(0, 10)
+				.boxed()
+				.collect(Collectors.toList()), polled);
+		for (int i = 100; i < 110; i += 2) {
+			assertEquals("Heap is broken after offering from a batch poll", i, (int) heap.poll());
+		}
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testUnorderedStream() {
+		Random random = new Random(42);
+		List<Integer> values = random.ints(10000, 0, 1000)
+				.boxed()
+				.collect(Collectors.toList());
+		heap.offerAll(values);
+		assertEquals("The stream does not contain every element", values.stream()
+				.mapToLong(Integer::longValue)
+				.sum(), heap.stream()
+						.parallel()
+						.mapToLong(Integer::longValue)
+						.sum());
+		assertEquals("The spliterator does not report its size", 10000, heap.spliterator()
+				.getExactSizeIfKnown());
+		assertEquals("Streaming modified the heap", 10000, heap.size());
+	}
+
+	@Test
+	public void testSortedStream() {
+		Random random = new Random(42);
+		for (int order = 1; order < 6; order++) {
+			ArrayHeap<Integer> heap = new ArrayHeap<>(order, Collections.reverseOrder());
+			List<Integer> values = random.ints(1000, 0, 100)
+					.boxed()
+					.collect(Collectors.toList());
+			values.forEach(heap::offer);
+			values.sort(Collections.reverseOrder());
+			assertEquals("The sorted stream is not ordered for order " + order, values, heap.sortedStream()
+					.collect(Collectors.toList()));
+			assertEquals("The sorted stream is not lazy", values.subList(0, 10), heap.sortedStream()
+					.limit(10)
+					.collect(Collectors.toList()));
+			assertEquals("Streaming modified the heap", 1000, heap.size());
+			assertEquals("Streaming modified the heap", values.get(0), heap.poll());
+		}
+	}
+
+	@Test
+	public void testSortedStreamDetectsModification() {
+		IntStream.range(0, 10)
+				.forEach(heap::offer);
+		Iterator<Integer> iterator = heap.sortedStream()
+				.iterator();
+		assertEquals(0, (int) iterator.next());
+		heap.poll();
+		boolean exceptionThrown = false;
+		try {
+			iterator.next();
+		} catch (ConcurrentModificationException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for modifying the heap while streaming", exceptionThrown);
+	}
 }
@@ -0,0 +1,67 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BHeapTest extends HeapTest<BHeap<Integer>> {
+
+	// A small page size makes even the shared tests span several pages.
+	@Override
+	protected BHeap<Integer> createInstance(int order) {
+		return new BHeap<>(8);
+	}
+
+	@Test
+	public void testConstructor() {
+		for (int pageSize : new int[] { 0, 2, 3, 12, -8 }) {
+			boolean exceptionThrown = false;
+			try {
+				new BHeap<Integer>(pageSize);
+			} catch (IllegalArgumentException e) {
+				exceptionThrown = true;
+			}
+			assertTrue("No exception thrown for page size " + pageSize, exceptionThrown);
+		}
+	}
+
+	@Test
+	public void testRandomNumbersAllPageSizes() {
+		Random random = new Random(42);
+		for (int pageSize = 4; pageSize <= 1024; pageSize *= 2) {
+			BHeap<Integer> heap = new BHeap<>(pageSize);
+			int[] values = random.ints(20000, 0, 5000)
+					.toArray();
+			for (int value : values) {
+				heap.offer(value);
+			}
+			Arrays.sort(values);
+			for (int value : values) {
+				assertEquals("Polling does not work correctly", value, (int) heap.poll());
+			}
+			assertTrue(heap.isEmpty());
+		}
+	}
+
+	@Test
+	public void testInterleavedOperations() {
+		Random random = new Random(42);
+		BHeap<Integer> heap = new BHeap<>(16, (a, b) -> Integer.compare(b, a));
+		PriorityQueue<Integer> expected = new PriorityQueue<>((a, b) -> Integer.compare(b, a));
+		for (int i = 0; i < 50000; i++) {
+			if (random.nextInt(3) > 0 || expected.isEmpty()) {
+				int value = random.nextInt();
+				heap.offer(value);
+				expected.add(value);
+			} else {
+				assertEquals("Polling does not work correctly", expected.poll(), heap.poll());
+			}
+		}
+		assertEquals("Size is not updated correctly", expected.size(), heap.size());
+	}
+}
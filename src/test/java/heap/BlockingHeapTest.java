@@ -0,0 +1,186 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class BlockingHeapTest {
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			new BlockingHeap<Integer>(3, 0);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for trying to create a queue with capacity 0", exceptionThrown);
+	}
+
+	@Test
+	public void testPriorityOrder() {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(3, 100);
+		IntStream.range(0, 100)
+				.map(i -> 99 - i)
+				.forEach(queue::offer);
+		for (int i = 0; i < 100; i++) {
+			assertEquals("Polling does not work correctly", i, (int) queue.poll());
+		}
+		assertNull("Polling an empty queue does not return null", queue.poll());
+		assertNull("Peeking an empty queue does not return null", queue.peek());
+	}
+
+	@Test
+	public void testCapacity() throws InterruptedException {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(2, 2);
+		assertTrue(queue.offer(1));
+		assertTrue(queue.offer(2));
+		assertFalse("Offer succeeded on a full queue", queue.offer(3));
+		assertFalse("Timed offer succeeded on a full queue", queue.offer(3, 10, TimeUnit.MILLISECONDS));
+		assertEquals("Remaining capacity is wrong", 0, queue.remainingCapacity());
+		queue.poll();
+		assertEquals("Remaining capacity is wrong", 1, queue.remainingCapacity());
+	}
+
+	@Test
+	public void testNullRejected() {
+		boolean exceptionThrown = false;
+		try {
+			new BlockingHeap<Integer>(3, 10).offer(null);
+		} catch (NullPointerException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for offering null", exceptionThrown);
+	}
+
+	@Test
+	public void testTimedPollOnEmptyQueue() throws InterruptedException {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(3, 10);
+		assertNull("Timed poll on an empty queue does not return null", queue.poll(10, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testDrainTo() {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(4, 1000);
+		IntStream.range(0, 100)
+				.map(i -> 99 - i)
+				.forEach(queue::offer);
+		List<Integer> drained = new ArrayList<>();
+		assertEquals("Wrong number of drained elements", 10, queue.drainTo(drained, 10));
+		assertEquals("Drained elements are not in priority order", IntStream.range(0, 10)
+				.boxed()
+				.collect(Collectors.toList()), drained);
+		assertEquals("Wrong number of drained elements", 90, queue.drainTo(drained));
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testRemoveAndIterator() {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(3, 100);
+		IntStream.range(0, 10)
+				.forEach(queue::offer);
+		assertTrue("Removing a contained element failed", queue.remove(5));
+		assertFalse("Removing a missing element succeeded", queue.remove(5));
+		Iterator<Integer> iter = queue.iterator();
+		while (iter.hasNext()) {
+			if (iter.next() == 0) {
+				iter.remove();
+			}
+		}
+		List<Integer> values = new ArrayList<>(queue);
+		Collections.sort(values);
+		assertEquals("Iterator does not see the right elements", IntStream.range(1, 10)
+				.filter(i -> i != 5)
+				.boxed()
+				.collect(Collectors.toList()), values);
+		assertEquals("Heap is broken after removal", 1, (int) queue.poll());
+	}
+
+	@Test
+	public void testProducerConsumer() throws InterruptedException {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(3, 8);
+		List<Integer> consumed = Collections.synchronizedList(new ArrayList<>());
+		Thread producer = new Thread(() -> {
+			try {
+				for (int i = 0; i < 1000; i++) {
+					queue.put(i);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread()
+						.interrupt();
+			}
+		});
+		Thread consumer = new Thread(() -> {
+			try {
+				for (int i = 0; i < 1000; i++) {
+					consumed.add(queue.take());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread()
+						.interrupt();
+			}
+		});
+		producer.start();
+		consumer.start();
+		producer.join(10000);
+		consumer.join(10000);
+		assertEquals("Not every produced element was consumed", 1000, consumed.size());
+		List<Integer> sorted = new ArrayList<>(consumed);
+		Collections.sort(sorted);
+		assertEquals("Elements were lost or duplicated", IntStream.range(0, 1000)
+				.boxed()
+				.collect(Collectors.toList()), sorted);
+	}
+
+	@Test
+	public void testFailedDrainWakesProducers() throws InterruptedException {
+		BlockingHeap<Integer> queue = new BlockingHeap<>(3, 4);
+		IntStream.range(0, 4)
+				.forEach(queue::add);
+		Thread producer = new Thread(() -> {
+			try {
+				queue.put(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread()
+						.interrupt();
+			}
+		});
+		producer.start();
+		while (producer.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+		List<Integer> sink = new ArrayList<Integer>() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean add(Integer e) {
+				if (size() == 2) {
+					throw new IllegalStateException("Sink is full");
+				}
+				return super.add(e);
+			}
+		};
+		boolean exceptionThrown = false;
+		try {
+			queue.drainTo(sink, 4);
+		} catch (IllegalStateException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("The exception thrown by the collection was not rethrown", exceptionThrown);
+		producer.join(5000);
+		assertFalse("The producer was not woken after a failed drain", producer.isAlive());
+		assertEquals("Wrong number of elements after the failed drain", 2, queue.size());
+	}
+}
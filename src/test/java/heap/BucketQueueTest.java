@@ -0,0 +1,83 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BucketQueueTest extends HeapTest<BucketQueue<Integer>> {
+
+	@Override
+	protected BucketQueue<Integer> createInstance(int order) {
+		return new BucketQueue<>(1000, Integer::intValue);
+	}
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			new BucketQueue<Integer>(0, Integer::intValue);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for trying to create a queue with range 0", exceptionThrown);
+	}
+
+	@Test
+	public void testPriorityOutOfRange() {
+		boolean exceptionThrown = false;
+		try {
+			heap.offer(1000);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for a priority above the range", exceptionThrown);
+		exceptionThrown = false;
+		try {
+			heap.offer(-1);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for a negative priority", exceptionThrown);
+		assertTrue("Rejected elements were added", heap.isEmpty());
+	}
+
+	@Test
+	public void testFifoWithinPriority() {
+		BucketQueue<int[]> queue = new BucketQueue<>(8, element -> element[0]);
+		for (int i = 0; i < 100; i++) {
+			queue.offer(new int[] { i % 3, i });
+		}
+		int previousPriority = 0;
+		int previousSequence = -1;
+		while (!queue.isEmpty()) {
+			int[] element = queue.poll();
+			if (element[0] == previousPriority) {
+				assertTrue("Equal priorities are not polled in FIFO order", element[1] > previousSequence);
+			} else {
+				assertTrue("Priorities are not polled in order", element[0] > previousPriority);
+			}
+			previousPriority = element[0];
+			previousSequence = element[1];
+		}
+	}
+
+	@Test
+	public void testLargeRange() {
+		Random random = new Random(42);
+		int range = 1 << 13;
+		BucketQueue<Integer> queue = new BucketQueue<>(range, Integer::intValue);
+		int[] values = random.ints(10000, 0, range)
+				.toArray();
+		for (int value : values) {
+			queue.offer(value);
+		}
+		Arrays.sort(values);
+		for (int value : values) {
+			assertEquals("Polling does not work correctly", value, (int) queue.poll());
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CancellableHeapTest extends HeapTest<CancellableHeap<Integer>> {
+
+	@Override
+	protected CancellableHeap<Integer> createInstance(int order) {
+		return new CancellableHeap<>(order);
+	}
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			new CancellableHeap<Integer>(3, Integer::compare, 1.0);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for a dead ratio of 1", exceptionThrown);
+	}
+
+	@Test
+	public void testCancel() {
+		Handle<Integer> first = heap.insert(1);
+		Handle<Integer> second = heap.insert(2);
+		heap.insert(3);
+		assertTrue("Cancelling a live element did not change the heap", heap.cancel(first));
+		assertFalse("Handle is still valid after cancel", first.isValid());
+		assertFalse("Cancelling twice changed the heap", heap.cancel(first));
+		assertEquals("Size does not exclude cancelled elements", 2, heap.size());
+		assertEquals("Peek returns a cancelled element", 2, (int) heap.peek());
+		assertEquals("Poll returns the wrong element", 2, (int) heap.poll());
+		assertFalse("Handle is still valid after poll", second.isValid());
+		assertFalse("Cancelling a polled element changed the heap", heap.cancel(second));
+		assertFalse("Cancelling a handle from another heap changed the heap", createInstance(3).cancel(heap.insert(4)));
+	}
+
+	@Test
+	public void testCancelEverything() {
+		List<Handle<Integer>> handles = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			handles.add(heap.insert(i));
+		}
+		for (Handle<Integer> handle : handles) {
+			heap.cancel(handle);
+		}
+		assertTrue("Heap is not empty after cancelling everything", heap.isEmpty());
+		assertEquals(0, heap.size());
+	}
+
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(42);
+		for (int order = 1; order < 6; order++) {
+			for (double ratio : new double[] { 0.1, 0.5, 0.9 }) {
+				CancellableHeap<Integer> heap = new CancellableHeap<>(order, Integer::compare, ratio);
+				List<Handle<Integer>> handles = new ArrayList<>();
+				List<Integer> expected = new ArrayList<>();
+				for (int i = 0; i < 2000; i++) {
+					int value = random.nextInt(10000);
+					handles.add(heap.insert(value));
+					expected.add(value);
+					if (random.nextInt(10) < 8) {
+						Handle<Integer> handle = handles.remove(random.nextInt(handles.size()));
+						if (heap.cancel(handle)) {
+							expected.remove(handle.get());
+						}
+					}
+					if (i % 10 == 0 && !expected.isEmpty()) {
+						int polled = heap.poll();
+						Collections.sort(expected);
+						assertEquals("Poll returns the wrong element", (int) expected.remove(0), polled);
+					}
+					assertEquals("Size is not updated correctly", expected.size(), heap.size());
+				}
+				Collections.sort(expected);
+				for (int value : expected) {
+					assertEquals("Heap is broken after cancellations", value, (int) heap.poll());
+				}
+				assertTrue(heap.isEmpty());
+			}
+		}
+	}
+}
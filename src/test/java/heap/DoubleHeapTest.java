@@ -0,0 +1,44 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DoubleHeapTest {
+
+	@Test
+	public void testRandomNumbersAllOrders() {
+		Random random = new Random(42);
+		for (int order = 1; order < 10; order++) {
+			DoubleHeap heap = new DoubleHeap(order);
+			double[] values = random.doubles(1000)
+					.toArray();
+			for (double value : values) {
+				heap.offer(value);
+			}
+			assertEquals("Size is not updated correctly", values.length, heap.size());
+			Arrays.sort(values);
+			for (int i = 0; i < values.length; i++) {
+				assertEquals("Polling does not work correctly", values[i], heap.poll(), 0);
+			}
+			assertTrue(heap.isEmpty());
+		}
+	}
+
+	@Test
+	public void testNaturalOrderingOfSpecialValues() {
+		DoubleHeap heap = new DoubleHeap(2);
+		heap.offer(Double.NaN);
+		heap.offer(0.0);
+		heap.offer(-0.0);
+		heap.offer(Double.NEGATIVE_INFINITY);
+		assertEquals(Double.NEGATIVE_INFINITY, heap.poll(), 0);
+		assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(heap.poll()));
+		assertEquals(Double.doubleToLongBits(0.0), Double.doubleToLongBits(heap.poll()));
+		assertTrue(Double.isNaN(heap.poll()));
+	}
+}
@@ -0,0 +1,98 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ExternalHeapTest extends HeapTest<ExternalHeap<Integer>> {
+
+	static final RecordCodec<Integer> INT_CODEC = new RecordCodec<Integer>() {
+
+		@Override
+		public void write(Integer t, DataOutput out) throws IOException {
+			out.writeInt(t);
+		}
+
+		@Override
+		public Integer read(DataInput in) throws IOException {
+			return in.readInt();
+		}
+	};
+
+	// A tiny memory limit makes the shared tests spill to disk.
+	@Override
+	protected ExternalHeap<Integer> createInstance(int order) {
+		return new ExternalHeap<>(order, Integer::compare, INT_CODEC, 4);
+	}
+
+	@After
+	public void closeHeap() {
+		heap.close();
+	}
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			new ExternalHeap<>(3, Integer::compare, INT_CODEC, 0);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for a memory limit of 0", exceptionThrown);
+	}
+
+	@Test
+	public void testSpillAndMergeManyRuns() throws IOException {
+		Path directory = Files.createTempDirectory("external-heap");
+		Random random = new Random(42);
+		int[] values = random.ints(20000)
+				.toArray();
+		// 20 000 elements with room for 100 in memory produce 200 runs, which
+		// forces the runs to be merged.
+		try (ExternalHeap<Integer> heap = new ExternalHeap<>(4, Integer::compare, INT_CODEC, 100, directory)) {
+			for (int i = 0; i < values.length; i++) {
+				heap.offer(values[i]);
+				if (i % 7 == 0) {
+					heap.offer(heap.poll());
+				}
+			}
+			assertEquals("Size is not updated correctly", values.length, heap.size());
+			Arrays.sort(values);
+			for (int value : values) {
+				assertEquals("Peek returns the wrong value", value, (int) heap.peek());
+				assertEquals("Polling does not work correctly", value, (int) heap.poll());
+			}
+			assertTrue(heap.isEmpty());
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals("Temporary files were not deleted", 0, files.count());
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	public void testCloseDeletesFiles() throws IOException {
+		Path directory = Files.createTempDirectory("external-heap");
+		ExternalHeap<Integer> heap = new ExternalHeap<>(2, Integer::compare, INT_CODEC, 10, directory);
+		for (int i = 0; i < 100; i++) {
+			heap.offer(i);
+		}
+		heap.close();
+		assertTrue("Heap is not empty after close", heap.isEmpty());
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals("Temporary files were not deleted", 0, files.count());
+		}
+		Files.delete(directory);
+	}
+}
@@ -0,0 +1,173 @@
+package heap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExternalSorterTest {
+
+	private Path directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("external-sorter");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			assertEquals("Temporary files were not deleted", 0, files.count());
+		}
+		Files.delete(directory);
+	}
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			new ExternalSorter<>(3, Integer::compare, ExternalHeapTest.INT_CODEC, 10, 1, directory);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for a fan-in of 1", exceptionThrown);
+	}
+
+	@Test
+	public void testSortInMemory() throws IOException {
+		ExternalSorter<Integer> sorter = new ExternalSorter<>(4, Integer::compare, ExternalHeapTest.INT_CODEC, 100, 4, directory);
+		List<Integer> output = new ArrayList<>();
+		sorter.sort(Arrays.asList(5, 3, null, 9, 1)
+				.iterator(), output::add);
+		assertEquals("Sorting in memory does not work correctly", Arrays.asList(1, 3, 5, 9), output);
+		output.clear();
+		sorter.sort(Collections.<Integer>emptyIterator(), output::add);
+		assertTrue("Sorting nothing produces elements", output.isEmpty());
+	}
+
+	@Test
+	public void testMultiplePassMerge() throws IOException {
+		Random random = new Random(42);
+		int[] values = random.ints(20000)
+				.toArray();
+		// A fan-in of 3 forces several merge passes.
+		ExternalSorter<Integer> sorter = new ExternalSorter<>(2, Integer::compare, ExternalHeapTest.INT_CODEC, 100, 3, directory);
+		List<Integer> output = new ArrayList<>();
+		sorter.sort(IntStream.of(values)
+				.boxed()
+				.iterator(), output::add);
+		Arrays.sort(values);
+		assertArrayEquals("External sorting does not work correctly", values, output.stream()
+				.mapToInt(Integer::intValue)
+				.toArray());
+	}
+
+	@Test
+	public void testRandomInputRunLength() throws IOException {
+		Random random = new Random(42);
+		List<Integer> output = new ArrayList<>();
+		long runs = countRuns(random.ints(20000)
+				.boxed()
+				.iterator(), 100, output);
+		assertEquals("Random input is not sorted correctly", 20000, output.size());
+		// Replacement selection produces runs of about twice the memory limit.
+		assertTrue("The runs are too short: " + runs, runs < 120);
+	}
+
+	@Test
+	public void testSortedInputFormsSingleRun() throws IOException {
+		List<Integer> output = new ArrayList<>();
+		long runs = countRuns(IntStream.range(0, 1000)
+				.boxed()
+				.iterator(), 10, output);
+		assertEquals("Sorted input is not sorted correctly", 1000, output.size());
+		assertEquals("Sorted input forms more than one run", 1, runs);
+	}
+
+	@Test
+	public void testSortFileInPlace() throws IOException {
+		Path file = Files.createTempFile(directory, "in", ".bin");
+		try (DataOutputStream dataOut = new DataOutputStream(Files.newOutputStream(file))) {
+			dataOut.writeInt(2);
+			dataOut.writeInt(1);
+		}
+		ExternalSorter<Integer> sorter = new ExternalSorter<>(3, Integer::compare, ExternalHeapTest.INT_CODEC, 64, 8, directory);
+		boolean exceptionThrown = false;
+		try {
+			sorter.sort(file, directory.resolve(".")
+					.resolve(file.getFileName()));
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for sorting a file into itself", exceptionThrown);
+		assertEquals("The input file was modified", 8, Files.size(file));
+		Files.delete(file);
+	}
+
+	@Test
+	public void testSortFile() throws IOException {
+		Path in = Files.createTempFile(directory, "in", ".bin");
+		Path out = Files.createTempFile(directory, "out", ".bin");
+		Random random = new Random(7);
+		int[] values = random.ints(5000)
+				.toArray();
+		try (DataOutputStream dataOut = new DataOutputStream(Files.newOutputStream(in))) {
+			for (int value : values) {
+				dataOut.writeInt(value);
+			}
+		}
+		new ExternalSorter<>(3, Integer::compare, ExternalHeapTest.INT_CODEC, 64, 8, directory).sort(in, out);
+		Arrays.sort(values);
+		try (DataInputStream dataIn = new DataInputStream(Files.newInputStream(out))) {
+			for (int value : values) {
+				assertEquals("Sorting a file does not work correctly", value, dataIn.readInt());
+			}
+			assertEquals("The sorted file is too long", -1, dataIn.read());
+		}
+		Files.delete(in);
+		Files.delete(out);
+	}
+
+	// Sorts with a fan-in large enough to merge every run in a single pass, so
+	// that only the runs are written through the codec, and counts the
+	// temporary files it writes to.
+	private long countRuns(Iterator<Integer> input, int memoryLimit, List<Integer> output) throws IOException {
+		Set<DataOutput> files = Collections.newSetFromMap(new IdentityHashMap<>());
+		RecordCodec<Integer> codec = new RecordCodec<Integer>() {
+
+			@Override
+			public void write(Integer t, DataOutput out) throws IOException {
+				files.add(out);
+				ExternalHeapTest.INT_CODEC.write(t, out);
+			}
+
+			@Override
+			public Integer read(DataInput in) throws IOException {
+				return ExternalHeapTest.INT_CODEC.read(in);
+			}
+		};
+		new ExternalSorter<>(4, Integer::compare, codec, memoryLimit, Integer.MAX_VALUE, directory).sort(input, output::add);
+		return files.size();
+	}
+}
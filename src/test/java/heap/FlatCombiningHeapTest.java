@@ -0,0 +1,101 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class FlatCombiningHeapTest extends HeapTest<FlatCombiningHeap<Integer>> {
+
+	@Override
+	protected FlatCombiningHeap<Integer> createInstance(int order) {
+		return new FlatCombiningHeap<>(order);
+	}
+
+	@Test
+	public void testComparatorExceptionReachesCaller() {
+		FlatCombiningHeap<Integer> heap = new FlatCombiningHeap<>(2, (a, b) -> {
+			if (a < 0 || b < 0) {
+				throw new IllegalStateException("Negative element");
+			}
+			return Integer.compare(a, b);
+		});
+		heap.offer(1);
+		boolean exceptionThrown = false;
+		try {
+			heap.offer(-1);
+		} catch (IllegalStateException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("The exception thrown by the comparator was not rethrown", exceptionThrown);
+	}
+
+	@Test
+	public void testConcurrentOfferAndPoll() throws InterruptedException {
+		FlatCombiningHeap<Integer> heap = new FlatCombiningHeap<>(4);
+		ConcurrentLinkedQueue<Integer> polled = new ConcurrentLinkedQueue<>();
+		int threads = 8;
+		int perThread = 5000;
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int offset = t * perThread;
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					heap.offer(offset + i);
+					if (i % 2 == 1) {
+						polled.add(heap.poll());
+					}
+				}
+			}));
+		}
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		assertEquals("Size is not updated correctly", threads * perThread - polled.size(), heap.size());
+		int previous = Integer.MIN_VALUE;
+		while (!heap.isEmpty()) {
+			int value = heap.poll();
+			assertTrue("Elements left after the threads finished are not ordered", value >= previous);
+			previous = value;
+			polled.add(value);
+		}
+		List<Integer> sorted = new ArrayList<>(polled);
+		Collections.sort(sorted);
+		assertEquals("Elements were lost or duplicated", IntStream.range(0, threads * perThread)
+				.boxed()
+				.collect(Collectors.toList()), sorted);
+	}
+
+	@Test
+	public void testConcurrentPollN() throws InterruptedException {
+		assertConcurrentPollN(() -> new FlatCombiningHeap<>(4));
+	}
+
+	@Test
+	public void testIdleSlotsAreUnlinked() throws InterruptedException {
+		// Enough short-lived threads to make the combiner unlink idle slots,
+		// including the one of this thread, which must then be linked again.
+		FlatCombiningHeap<Integer> heap = new FlatCombiningHeap<>(2);
+		heap.offer(-1);
+		for (int i = 0; i < 1000; i++) {
+			int value = i;
+			Thread thread = new Thread(() -> heap.offer(value));
+			thread.start();
+			thread.join();
+		}
+		for (int i = -1; i < 1000; i++) {
+			assertEquals("Elements were lost when slots were unlinked", i, (int) heap.poll());
+		}
+		assertTrue(heap.isEmpty());
+	}
+}
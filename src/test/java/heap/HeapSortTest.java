@@ -0,0 +1,104 @@
+package heap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HeapSortTest {
+
+	@Test
+	public void testIllegalArguments() {
+		boolean exceptionThrown = false;
+		try {
+			HeapSort.sort(new Integer[] { 2, 1 }, 0, Integer::compare);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for sorting with order 0", exceptionThrown);
+	}
+
+	@Test
+	public void testSortArrayAllOrders() {
+		Random random = new Random(42);
+		for (int order = 1; order < 9; order++) {
+			for (int length : new int[] { 0, 1, 2, 3, 10, 1000 }) {
+				Integer[] a = random.ints(length, 0, length + 1)
+						.boxed()
+						.toArray(Integer[]::new);
+				Integer[] expected = a.clone();
+				Arrays.sort(expected);
+				HeapSort.sort(a, order, Comparator.naturalOrder());
+				assertArrayEquals("Sorting does not work for order " + order + " and length " + length, expected, a);
+			}
+		}
+	}
+
+	@Test
+	public void testSortWithComparator() {
+		String[] a = { "pear", "fig", "banana", "kiwi", "apple" };
+		HeapSort.sort(a, Comparator.comparingInt(String::length)
+				.thenComparing(Comparator.reverseOrder()));
+		assertArrayEquals("Sorting with a comparator does not work", new String[] { "fig", "pear", "kiwi", "apple", "banana" }, a);
+		Integer[] b = { 3, 1, 2 };
+		HeapSort.sort(b);
+		assertArrayEquals(new Integer[] { 1, 2, 3 }, b);
+	}
+
+	@Test
+	public void testSortList() {
+		Random random = new Random(7);
+		List<Integer> values = new ArrayList<>();
+		random.ints(500)
+				.forEach(values::add);
+		List<Integer> linked = new LinkedList<>(values);
+		List<Integer> expected = new ArrayList<>(values);
+		Collections.sort(expected, Collections.reverseOrder());
+		HeapSort.sort(values, 3, Collections.reverseOrder());
+		HeapSort.sort(linked, 2, Collections.reverseOrder());
+		assertEquals("Sorting an array list does not work", expected, values);
+		assertEquals("Sorting a linked list does not work", expected, linked);
+	}
+
+	@Test
+	public void testParallelSort() {
+		Random random = new Random(42);
+		Integer[] a = random.ints(100000, 0, 1000)
+				.boxed()
+				.toArray(Integer[]::new);
+		Integer[] expected = a.clone();
+		Arrays.sort(expected);
+		for (int chunks = 1; chunks < 10; chunks++) {
+			Integer[] copy = a.clone();
+			HeapSort.parallelSort(copy, 4, Comparator.naturalOrder(), chunks);
+			assertArrayEquals("Parallel sorting does not work with " + chunks + " chunks", expected, copy);
+		}
+		HeapSort.parallelSort(a, 4, Comparator.naturalOrder());
+		assertArrayEquals("Parallel sorting does not work", expected, a);
+	}
+
+	@Test
+	public void testParallelSortWithNulls() {
+		Random random = new Random(42);
+		Integer[] a = random.ints(1000, 0, 100)
+				.mapToObj(i -> i < 10 ? null : i)
+				.toArray(Integer[]::new);
+		Comparator<Integer> comp = Comparator.nullsFirst(Comparator.naturalOrder());
+		Integer[] expected = a.clone();
+		Arrays.sort(expected, comp);
+		for (int chunks = 1; chunks < 10; chunks++) {
+			Integer[] copy = a.clone();
+			HeapSort.parallelSort(copy, 4, comp, chunks);
+			assertArrayEquals("Parallel sorting does not work with null elements and " + chunks + " chunks", expected, copy);
+		}
+	}
+}
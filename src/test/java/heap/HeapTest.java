@@ -5,12 +5,16 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -108,6 +112,41 @@ public abstract class HeapTest<T extends Heap<Integer>> {
 		assertTrue("No exception thrown for polling on an empty heap", exceptionThrown);
 	}
 
+	@Test
+	public void testOfferAllAndPollN() {
+		List<Integer> values = new ArrayList<>();
+		for (int i = 99; i >= 0; i--) {
+			values.add(i);
+		}
+		values.add(null);
+		assertTrue("Offering a batch did not change the heap", heap.offerAll(values));
+		assertEquals("Size is not updated correctly", 100, heap.size());
+		assertTrue("Offering a small batch did not change the heap", heap.offerAll(IntStream.range(200, 210)
+				.boxed()
+				.collect(Collectors.toList())));
+		List<Integer> polled = new ArrayList<>();
+		assertEquals("Wrong number of polled elements", 10, heap.pollN(10, polled::add));
+		assertEquals("Wrong number of polled elements", 100, heap.pollN(1000, polled::add));
+		assertEquals("Batch polling does not work correctly", Stream.concat(IntStream.range(0, 100)
+				.boxed(), IntStream.range(200, 210)
+						.boxed())
+				.collect(Collectors.toList()), polled);
+		assertTrue(heap.isEmpty());
+		assertEquals("Polling from an empty heap returned elements", 0, heap.pollN(5, polled::add));
+	}
+
+	@Test
+	public void testDrainTo() {
+		positiveNumbers(0, 1000).forEach(heap::offer);
+		List<Integer> drained = new ArrayList<>();
+		assertEquals("Wrong number of drained elements", 100, heap.drainTo(drained, 100));
+		assertEquals("Wrong number of drained elements", 900, heap.drainTo(drained, Integer.MAX_VALUE));
+		for (int i = 1; i < drained.size(); i++) {
+			assertTrue("Drained elements are not ordered", drained.get(i - 1) <= drained.get(i));
+		}
+		assertTrue(heap.isEmpty());
+	}
+
 	@Test
 	public void testOfferAndPollWithRandomNumbers() {
 		boolean success = positiveNumbers(0, 1000).allMatch(heap::offer);
@@ -153,6 +192,45 @@ public abstract class HeapTest<T extends Heap<Integer>> {
 				.mapToInt(e -> e);
 	}
 
+	// Lets several threads batch poll the same heap until it is empty, for
+	// the thread-safe heaps. A batch must end early, not fail, when another
+	// thread empties the heap.
+	static void assertConcurrentPollN(Supplier<? extends Heap<Integer>> factory) throws InterruptedException {
+		int threads = 4;
+		int elements = 2000;
+		for (int round = 0; round < 20; round++) {
+			Heap<Integer> heap = factory.get();
+			IntStream.range(0, elements)
+					.forEach(heap::offer);
+			ConcurrentLinkedQueue<Integer> polled = new ConcurrentLinkedQueue<>();
+			AtomicBoolean underflow = new AtomicBoolean();
+			List<Thread> consumers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				consumers.add(new Thread(() -> {
+					try {
+						while (!heap.isEmpty()) {
+							heap.pollN(64, polled::add);
+						}
+					} catch (NoSuchElementException e) {
+						underflow.set(true);
+					}
+				}));
+			}
+			for (Thread consumer : consumers) {
+				consumer.start();
+			}
+			for (Thread consumer : consumers) {
+				consumer.join();
+			}
+			assertFalse("Batch polling failed when another thread emptied the heap", underflow.get());
+			List<Integer> sorted = new ArrayList<>(polled);
+			Collections.sort(sorted);
+			assertEquals("Elements were lost or duplicated", IntStream.range(0, elements)
+					.boxed()
+					.collect(Collectors.toList()), sorted);
+		}
+	}
+
 	public static <T> Comparator<T> shuffle() {
 		final Map<Object, UUID> uniqueIds = new IdentityHashMap<>();
 		return (e1, e2) -> {
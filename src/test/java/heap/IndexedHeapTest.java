@@ -0,0 +1,119 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IndexedHeapTest extends HeapTest<IndexedHeap<Integer>> {
+
+	@Override
+	protected IndexedHeap<Integer> createInstance(int order) {
+		return new IndexedHeap<>(order);
+	}
+
+	@Test
+	public void testHandleValidity() {
+		Handle<Integer> handle = heap.insert(5);
+		assertTrue("Handle is not valid after insert", handle.isValid());
+		assertEquals("Handle refers to the wrong element", 5, (int) handle.get());
+		heap.poll();
+		assertFalse("Handle is still valid after poll", handle.isValid());
+		assertFalse("Removing a polled handle changed the heap", heap.remove(handle));
+	}
+
+	@Test
+	public void testDecreaseKey() {
+		List<Handle<Integer>> handles = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			handles.add(heap.insert(i + 100));
+		}
+		heap.decreaseKey(handles.get(50), 1);
+		assertEquals("Decreased element is not on top", 1, (int) heap.poll());
+		assertEquals("Heap is broken after decreaseKey", 100, (int) heap.poll());
+	}
+
+	@Test
+	public void testIncreaseKey() {
+		List<Handle<Integer>> handles = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			handles.add(heap.insert(i));
+		}
+		heap.increaseKey(handles.get(0), 1000);
+		for (int i = 1; i < 100; i++) {
+			assertEquals("Heap is broken after increaseKey", i, (int) heap.poll());
+		}
+		assertEquals("Increased element is not last", 1000, (int) heap.poll());
+	}
+
+	@Test
+	public void testIllegalKeyChanges() {
+		Handle<Integer> handle = heap.insert(10);
+		boolean exceptionThrown = false;
+		try {
+			heap.decreaseKey(handle, 20);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for decreasing to a greater element", exceptionThrown);
+		exceptionThrown = false;
+		try {
+			heap.increaseKey(handle, 5);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for increasing to a smaller element", exceptionThrown);
+		exceptionThrown = false;
+		try {
+			createInstance(3).decreaseKey(handle, 5);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for using a handle from another heap", exceptionThrown);
+	}
+
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(42);
+		for (int order = 1; order < 6; order++) {
+			IndexedHeap<Integer> heap = createInstance(order);
+			List<Handle<Integer>> handles = new ArrayList<>();
+			List<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < 2000; i++) {
+				int value = random.nextInt(10000);
+				handles.add(heap.insert(value));
+				expected.add(value);
+			}
+			for (int i = 0; i < 500; i++) {
+				int position = random.nextInt(handles.size());
+				Handle<Integer> handle = handles.get(position);
+				int current = handle.get();
+				int operation = random.nextInt(3);
+				if (operation == 0) {
+					heap.decreaseKey(handle, current - random.nextInt(100));
+				} else if (operation == 1) {
+					heap.increaseKey(handle, current + random.nextInt(100));
+				} else {
+					assertTrue("Removing a valid handle failed", heap.remove(handle));
+				}
+				expected.remove(Integer.valueOf(current));
+				if (handle.isValid()) {
+					expected.add(handle.get());
+				} else {
+					handles.remove(position);
+				}
+			}
+			Collections.sort(expected);
+			assertEquals("Size is not updated correctly", expected.size(), heap.size());
+			for (int value : expected) {
+				assertEquals("Heap is broken after random operations", value, (int) heap.poll());
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntHeapTest {
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			new IntHeap(0);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for trying to create a heap with order 0", exceptionThrown);
+		exceptionThrown = false;
+		try {
+			new IntHeap(3, null);
+		} catch (NullPointerException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("Exception not thrown when initializing an intheap with a null comparator", exceptionThrown);
+	}
+
+	@Test
+	public void testEmpty() {
+		IntHeap heap = new IntHeap(3);
+		assertTrue(heap.isEmpty());
+		boolean exceptionThrown = false;
+		try {
+			heap.peek();
+		} catch (NoSuchElementException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for peeking on an empty heap", exceptionThrown);
+		exceptionThrown = false;
+		try {
+			heap.poll();
+		} catch (NoSuchElementException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for polling on an empty heap", exceptionThrown);
+	}
+
+	@Test
+	public void testRandomNumbersAllOrders() {
+		Random random = new Random(42);
+		for (int order = 1; order < 10; order++) {
+			IntHeap heap = new IntHeap(order);
+			int[] values = random.ints(1000, -500, 500)
+					.toArray();
+			for (int value : values) {
+				assertTrue("Wrong success indication", heap.offer(value));
+			}
+			assertEquals("Size is not updated correctly", values.length, heap.size());
+			Arrays.sort(values);
+			for (int i = 0; i < values.length; i++) {
+				assertEquals("Peek returns wrong value", values[i], heap.peek());
+				assertEquals("Polling does not work correctly", values[i], heap.poll());
+			}
+			assertTrue(heap.isEmpty());
+		}
+	}
+
+	@Test
+	public void testComparator() {
+		IntHeap heap = new IntHeap(4, (a, b) -> Integer.compare(b, a));
+		for (int i = 0; i < 100; i++) {
+			heap.offer(i);
+		}
+		for (int i = 0; i < 100; i++) {
+			assertEquals("Custom comparator is not working (reverse order)", 99 - i, heap.poll());
+		}
+	}
+
+	@Test
+	public void testClear() {
+		IntHeap heap = new IntHeap(2);
+		heap.offer(5);
+		heap.offer(3);
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		heap.offer(7);
+		assertFalse(heap.isEmpty());
+		assertEquals(7, heap.poll());
+	}
+}
@@ -0,0 +1,75 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class KeyedHeapTest extends HeapTest<KeyedHeap<Integer>> {
+
+	@Override
+	protected KeyedHeap<Integer> createInstance(int order) {
+		return new KeyedHeap<>(order, Integer::longValue);
+	}
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			createInstance(0);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for trying to create a heap with order 0", exceptionThrown);
+	}
+
+	@Test
+	public void testKeyIsExtractedOncePerOffer() {
+		int[] calls = new int[1];
+		KeyedHeap<String> heap = new KeyedHeap<>(2, s -> {
+			calls[0]++;
+			return s.length();
+		});
+		for (int i = 0; i < 100; i++) {
+			heap.offer(new String(new char[100 - i]));
+		}
+		while (!heap.isEmpty()) {
+			heap.poll();
+		}
+		assertEquals("The key function was called more than once per element", 100, calls[0]);
+	}
+
+	@Test
+	public void testRandomKeysAllOrders() {
+		Random random = new Random(42);
+		for (int order = 1; order < 10; order++) {
+			KeyedHeap<long[]> heap = new KeyedHeap<>(order, element -> element[0]);
+			long[] keys = random.longs(2000)
+					.toArray();
+			for (long key : keys) {
+				heap.offer(new long[] { key });
+			}
+			Arrays.sort(keys);
+			for (long key : keys) {
+				assertEquals("Polling does not work correctly", key, heap.poll()[0]);
+			}
+		}
+	}
+
+	@Test
+	public void testComparingDouble() {
+		double[] keys = { 3.5, -0.0, Double.NaN, Double.NEGATIVE_INFINITY, 0.0, -2.25, Double.MAX_VALUE,
+				-Double.MIN_VALUE, Double.POSITIVE_INFINITY, 1e-300 };
+		KeyedHeap<double[]> heap = KeyedHeap.comparingDouble(3, element -> element[0]);
+		for (double key : keys) {
+			heap.offer(new double[] { key });
+		}
+		Arrays.sort(keys);
+		for (double key : keys) {
+			assertEquals("Double keys are not ordered like Double.compare", 0, Double.compare(key, heap.poll()[0]));
+		}
+	}
+}
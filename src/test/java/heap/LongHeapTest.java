@@ -0,0 +1,42 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongHeapTest {
+
+	@Test
+	public void testRandomNumbersAllOrders() {
+		Random random = new Random(42);
+		for (int order = 1; order < 10; order++) {
+			LongHeap heap = new LongHeap(order);
+			long[] values = random.longs(1000)
+					.toArray();
+			for (long value : values) {
+				heap.offer(value);
+			}
+			assertEquals("Size is not updated correctly", values.length, heap.size());
+			Arrays.sort(values);
+			for (int i = 0; i < values.length; i++) {
+				assertEquals("Polling does not work correctly", values[i], heap.poll());
+			}
+			assertTrue(heap.isEmpty());
+		}
+	}
+
+	@Test
+	public void testComparator() {
+		LongHeap heap = new LongHeap(3, (a, b) -> Long.compare(b, a));
+		for (long i = 0; i < 100; i++) {
+			heap.offer(i);
+		}
+		for (long i = 0; i < 100; i++) {
+			assertEquals("Custom comparator is not working (reverse order)", 99 - i, heap.poll());
+		}
+	}
+}
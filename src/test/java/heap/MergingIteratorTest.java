@@ -0,0 +1,92 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class MergingIteratorTest {
+
+	@Test
+	public void testNoSources() {
+		Iterator<Integer> iterator = new MergingIterator<>(Integer::compare, Collections.<Iterator<Integer>>emptyList());
+		assertFalse("An empty merge has elements", iterator.hasNext());
+		boolean exceptionThrown = false;
+		try {
+			iterator.next();
+		} catch (NoSuchElementException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for calling next on an empty merge", exceptionThrown);
+	}
+
+	@Test
+	public void testRandomSources() {
+		Random random = new Random(42);
+		for (int k = 1; k < 20; k++) {
+			List<List<Integer>> sources = new ArrayList<>();
+			List<Integer> expected = new ArrayList<>();
+			for (int i = 0; i < k; i++) {
+				List<Integer> source = new ArrayList<>();
+				random.ints(random.nextInt(50), 0, 100)
+						.forEach(source::add);
+				Collections.sort(source);
+				sources.add(source);
+				expected.addAll(source);
+			}
+			Collections.sort(expected);
+			List<Integer> merged = MergingIterator.merge(Integer::compare, sources.stream()
+					.map(List::iterator)
+					.collect(Collectors.toList()))
+					.collect(Collectors.toList());
+			assertEquals("Merging " + k + " sources does not work correctly", expected, merged);
+		}
+	}
+
+	@Test
+	public void testStableForEqualElements() {
+		List<Iterator<int[]>> sources = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			sources.add(Arrays.asList(new int[] { 1, i }, new int[] { 2, i })
+					.iterator());
+		}
+		Comparator<int[]> byValue = (a, b) -> Integer.compare(a[0], b[0]);
+		List<int[]> merged = MergingIterator.merge(byValue, sources)
+				.collect(Collectors.toList());
+		for (int i = 0; i < merged.size(); i++) {
+			assertEquals("Equal elements are not ordered by source", i % 5, merged.get(i)[1]);
+		}
+	}
+
+	@Test
+	public void testMergeStreamsIsLazyAndClosesSources() {
+		AtomicInteger closed = new AtomicInteger();
+		AtomicInteger pulled = new AtomicInteger();
+		List<Stream<Integer>> sources = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			int offset = i;
+			sources.add(Stream.iterate(offset, n -> n + 3)
+					.peek(n -> pulled.incrementAndGet())
+					.onClose(closed::incrementAndGet));
+		}
+		try (Stream<Integer> merged = MergingIterator.mergeStreams(Integer::compare, sources)) {
+			assertEquals("Infinite sorted streams are not merged lazily", Arrays.asList(0, 1, 2, 3, 4, 5, 6), merged.limit(7)
+					.collect(Collectors.toList()));
+		}
+		assertTrue("The sources were not consumed lazily", pulled.get() < 20);
+		assertEquals("Not every source was closed", 3, closed.get());
+	}
+}
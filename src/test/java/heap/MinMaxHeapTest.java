@@ -0,0 +1,77 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class MinMaxHeapTest extends HeapTest<MinMaxHeap<Integer>> {
+
+	@Override
+	protected MinMaxHeap<Integer> createInstance(int order) {
+		return new MinMaxHeap<>();
+	}
+
+	@Test
+	public void testEmptyMax() {
+		boolean exceptionThrown = false;
+		try {
+			heap.peekMax();
+		} catch (NoSuchElementException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for peeking max on an empty heap", exceptionThrown);
+		exceptionThrown = false;
+		try {
+			heap.pollMax();
+		} catch (NoSuchElementException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for polling max on an empty heap", exceptionThrown);
+	}
+
+	@Test
+	public void testBasicPollMax() {
+		for (int i = 0; i < 100; i++) {
+			heap.offer(i);
+		}
+		for (int i = 0; i < 100; i++) {
+			assertEquals("Peeking max does not work correctly", 99 - i, (int) heap.peekMax());
+			assertEquals("Polling max does not work correctly", 99 - i, (int) heap.pollMax());
+		}
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testRandomOperationsAtBothEnds() {
+		Random random = new Random(42);
+		TreeMap<Integer, Integer> expected = new TreeMap<>();
+		int expectedSize = 0;
+		for (int i = 0; i < 100000; i++) {
+			int operation = random.nextInt(4);
+			if (operation < 2 || heap.isEmpty()) {
+				int value = random.nextInt(1000);
+				heap.offer(value);
+				expected.merge(value, 1, Integer::sum);
+				expectedSize++;
+			} else {
+				int value = operation == 2 ? heap.poll() : heap.pollMax();
+				int expectedValue = operation == 2 ? expected.firstKey() : expected.lastKey();
+				assertEquals("The wrong end was polled", expectedValue, value);
+				if (expected.merge(value, -1, Integer::sum) == 0) {
+					expected.remove(value);
+				}
+				expectedSize--;
+			}
+			assertEquals("Size is not updated correctly", expectedSize, heap.size());
+			if (!heap.isEmpty()) {
+				assertEquals("Peek returns the wrong value", expected.firstKey(), heap.peek());
+				assertEquals("Peeking max returns the wrong value", expected.lastKey(), heap.peekMax());
+			}
+		}
+	}
+}
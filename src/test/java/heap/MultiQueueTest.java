@@ -0,0 +1,149 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class MultiQueueTest extends HeapTest<MultiQueue<Integer>> {
+
+	// A single shard behaves exactly like an ArrayHeap, which lets the
+	// shared tests check the ordering strictly.
+	@Override
+	protected MultiQueue<Integer> createInstance(int order) {
+		return new MultiQueue<>(order, Integer::compare, 1);
+	}
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			new MultiQueue<>(3, Integer::compare, 0);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for trying to create a queue without shards", exceptionThrown);
+	}
+
+	@Test
+	public void testShardedPollReturnsEverything() {
+		MultiQueue<Integer> queue = new MultiQueue<>(3, Integer::compare, 8);
+		IntStream.range(0, 1000)
+				.forEach(queue::offer);
+		assertEquals("Size is not updated correctly", 1000, queue.size());
+		assertEquals("Peek does not return the smallest element", 0, (int) queue.peek());
+		List<Integer> polled = new ArrayList<>();
+		while (!queue.isEmpty()) {
+			polled.add(queue.poll());
+		}
+		Collections.sort(polled);
+		assertEquals("Elements were lost or duplicated", IntStream.range(0, 1000)
+				.boxed()
+				.collect(Collectors.toList()), polled);
+	}
+
+	@Test
+	public void testSparsePoll() {
+		MultiQueue<Integer> queue = new MultiQueue<>(3, Integer::compare, 64);
+		for (int i = 0; i < 100; i++) {
+			queue.offer(i);
+			assertEquals("The only element in a sparse queue was not found", i, (int) queue.poll());
+		}
+		boolean exceptionThrown = false;
+		try {
+			queue.poll();
+		} catch (NoSuchElementException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for polling an empty queue", exceptionThrown);
+	}
+
+	@Test
+	public void testPollAfterNonEmptyCheck() throws InterruptedException {
+		MultiQueue<Integer> queue = new MultiQueue<>(3, Integer::compare, 16);
+		int count = 1000000;
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < count; i++) {
+				queue.offer(i);
+			}
+		});
+		producer.start();
+		// With a single consumer, nothing else can empty the queue between
+		// the check and the poll.
+		int polled = 0;
+		while (polled < count) {
+			if (!queue.isEmpty()) {
+				queue.poll();
+				polled++;
+			}
+		}
+		producer.join();
+		assertTrue("The queue is not empty after polling every element", queue.isEmpty());
+	}
+
+	@Test
+	public void testShardedPollIsApproximatelyOrdered() {
+		int shards = 4;
+		MultiQueue<Integer> queue = new MultiQueue<>(2, Integer::compare, shards);
+		IntStream.range(0, 10000)
+				.forEach(queue::offer);
+		long totalRankError = 0;
+		List<Integer> remaining = IntStream.range(0, 10000)
+				.boxed()
+				.collect(Collectors.toList());
+		for (int i = 0; i < 1000; i++) {
+			int polled = queue.poll();
+			int rank = Collections.binarySearch(remaining, polled);
+			remaining.remove(rank);
+			totalRankError += rank;
+		}
+		assertTrue("Average rank error is far larger than the number of shards", totalRankError / 1000.0 < 10 * shards);
+	}
+
+	@Test
+	public void testConcurrentPollN() throws InterruptedException {
+		assertConcurrentPollN(() -> new MultiQueue<>(4, Integer::compare, 8));
+	}
+
+	@Test
+	public void testConcurrentOfferAndPoll() throws InterruptedException {
+		MultiQueue<Integer> queue = new MultiQueue<>(4, Integer::compare, 8);
+		ConcurrentLinkedQueue<Integer> polled = new ConcurrentLinkedQueue<>();
+		int threads = 4;
+		int perThread = 5000;
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int offset = t * perThread;
+			workers.add(new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					queue.offer(offset + i);
+					if (i % 2 == 1) {
+						polled.add(queue.poll());
+					}
+				}
+			}));
+		}
+		for (Thread worker : workers) {
+			worker.start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		while (!queue.isEmpty()) {
+			polled.add(queue.poll());
+		}
+		List<Integer> sorted = new ArrayList<>(polled);
+		Collections.sort(sorted);
+		assertEquals("Elements were lost or duplicated", IntStream.range(0, threads * perThread)
+				.boxed()
+				.collect(Collectors.toList()), sorted);
+	}
+}
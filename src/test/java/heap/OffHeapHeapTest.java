@@ -0,0 +1,117 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class OffHeapHeapTest {
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			new OffHeapHeap(0, 8);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for trying to create a heap with order 0", exceptionThrown);
+		exceptionThrown = false;
+		try {
+			new OffHeapHeap(2, -1);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for a negative payload width", exceptionThrown);
+	}
+
+	@Test
+	public void testEmpty() {
+		try (OffHeapHeap heap = new OffHeapHeap(3, 8)) {
+			assertTrue(heap.isEmpty());
+			boolean exceptionThrown = false;
+			try {
+				heap.peekKey();
+			} catch (NoSuchElementException e) {
+				exceptionThrown = true;
+			}
+			assertTrue("No exception thrown for peeking on an empty heap", exceptionThrown);
+			exceptionThrown = false;
+			try {
+				heap.poll(null);
+			} catch (NoSuchElementException e) {
+				exceptionThrown = true;
+			}
+			assertTrue("No exception thrown for polling on an empty heap", exceptionThrown);
+		}
+	}
+
+	@Test
+	public void testRecordsAcrossPages() {
+		Random random = new Random(42);
+		// 150 000 records of 16 bytes span several pages.
+		try (OffHeapHeap heap = new OffHeapHeap(4, 8)) {
+			long[] keys = random.longs(150000)
+					.toArray();
+			ByteBuffer payload = ByteBuffer.allocate(8);
+			for (long key : keys) {
+				payload.clear();
+				payload.putLong(0, ~key);
+				heap.offer(key, payload);
+			}
+			assertEquals("Size is not updated correctly", keys.length, heap.size());
+			Arrays.sort(keys);
+			ByteBuffer out = ByteBuffer.allocate(8);
+			for (long key : keys) {
+				assertEquals("Peek returns the wrong key", key, heap.peekKey());
+				out.clear();
+				assertEquals("Polling does not work correctly", key, heap.poll(out));
+				assertEquals("Payload does not follow its key", ~key, out.getLong(0));
+			}
+			assertTrue(heap.isEmpty());
+		}
+	}
+
+	@Test
+	public void testOddPayloadWidthAllOrders() {
+		Random random = new Random(42);
+		for (int order = 1; order < 6; order++) {
+			try (OffHeapHeap heap = new OffHeapHeap(order, 3)) {
+				long[] keys = random.longs(1000, -100, 100)
+						.toArray();
+				for (long key : keys) {
+					heap.offer(key, ByteBuffer.wrap(new byte[] { (byte) key, 1, 2 }));
+				}
+				Arrays.sort(keys);
+				byte[] payload = new byte[3];
+				for (long key : keys) {
+					heap.peekPayload(ByteBuffer.wrap(payload));
+					assertEquals("Peeked payload does not follow its key", (byte) key, payload[0]);
+					assertEquals("Polling does not work correctly", key, heap.poll(ByteBuffer.wrap(payload)));
+					assertEquals("Payload does not follow its key", (byte) key, payload[0]);
+					assertEquals("Payload is corrupted", 2, payload[2]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUseAfterClose() {
+		OffHeapHeap heap = new OffHeapHeap(2, 0);
+		heap.offer(1, null);
+		heap.close();
+		heap.close();
+		boolean exceptionThrown = false;
+		try {
+			heap.offer(2, null);
+		} catch (IllegalStateException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for using a closed heap", exceptionThrown);
+	}
+}
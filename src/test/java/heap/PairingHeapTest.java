@@ -0,0 +1,74 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PairingHeapTest extends HeapTest<PairingHeap<Integer>> {
+
+	@Override
+	protected PairingHeap<Integer> createInstance(int order) {
+		return new PairingHeap<>();
+	}
+
+	@Test
+	public void testMeld() {
+		PairingHeap<Integer> other = createInstance(0);
+		for (int i = 0; i < 100; i++) {
+			heap.offer(2 * i);
+			other.offer(2 * i + 1);
+		}
+		heap.meld(other);
+		assertTrue("The melded heap is not empty", other.isEmpty());
+		assertEquals("Size is not updated correctly", 200, heap.size());
+		for (int i = 0; i < 200; i++) {
+			assertEquals("Melding does not work correctly", i, (int) heap.poll());
+		}
+	}
+
+	@Test
+	public void testDecreaseKeyAfterMeld() {
+		PairingHeap<Integer> other = createInstance(0);
+		heap.offer(10);
+		Handle<Integer> handle = other.insert(20);
+		other.offer(30);
+		heap.meld(other);
+		heap.decreaseKey(handle, 5);
+		assertEquals("Decreased element is not on top", 5, (int) heap.poll());
+		assertFalse("Handle is still valid after poll", handle.isValid());
+	}
+
+	@Test
+	public void testRandomDecreaseKey() {
+		Random random = new Random(42);
+		List<Handle<Integer>> handles = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			handles.add(heap.insert(random.nextInt(10000)));
+		}
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < 100; i++) {
+				Handle<Integer> handle = handles.get(random.nextInt(handles.size()));
+				if (handle.isValid()) {
+					heap.decreaseKey(handle, handle.get() - random.nextInt(1000));
+				}
+			}
+			List<Integer> expected = new ArrayList<>();
+			for (Handle<Integer> handle : handles) {
+				if (handle.isValid()) {
+					expected.add(handle.get());
+				}
+			}
+			Collections.sort(expected);
+			for (int i = 0; i < 100; i++) {
+				assertEquals("Heap is broken after decreaseKey", expected.get(i), heap.poll());
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PersistentHeapTest {
+
+	@Test
+	public void testEmptyHeap() {
+		PersistentHeap<Integer> heap = new PersistentHeap<>();
+		assertTrue("A new heap is not empty", heap.isEmpty());
+		assertEquals(0, heap.size());
+		boolean exceptionThrown = false;
+		try {
+			heap.deleteMin();
+		} catch (NoSuchElementException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for deleting from an empty heap", exceptionThrown);
+	}
+
+	@Test
+	public void testRandomNumbers() {
+		Random random = new Random(42);
+		PersistentHeap<Integer> heap = new PersistentHeap<>();
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			int value = random.nextInt(100);
+			heap = heap.insert(value);
+			expected.add(value);
+		}
+		Collections.sort(expected);
+		assertEquals("Size is not updated correctly", expected.size(), heap.size());
+		for (int value : expected) {
+			assertEquals("Peek returns the wrong element", value, (int) heap.peek());
+			heap = heap.deleteMin();
+		}
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testOldVersionsAreUnchanged() {
+		PersistentHeap<Integer> empty = new PersistentHeap<>(Integer::compare);
+		PersistentHeap<Integer> snapshot = empty.insert(5)
+				.insert(3)
+				.insert(8);
+		PersistentHeap<Integer> branch = snapshot.insert(1)
+				.deleteMin()
+				.deleteMin();
+		assertTrue("Inserting changed the empty heap", empty.isEmpty());
+		assertEquals("Branching changed the snapshot", 3, snapshot.size());
+		assertEquals("Branching changed the snapshot", 3, (int) snapshot.peek());
+		assertEquals("The branch is wrong", 5, (int) branch.peek());
+		assertEquals("The branch is wrong", 2, branch.size());
+	}
+
+	@Test
+	public void testMerge() {
+		Random random = new Random(7);
+		PersistentHeap<Integer> a = new PersistentHeap<>(Integer::compare);
+		PersistentHeap<Integer> b = a;
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			int value = random.nextInt();
+			expected.add(value);
+			if (i % 3 == 0) {
+				a = a.insert(value);
+			} else {
+				b = b.insert(value);
+			}
+		}
+		PersistentHeap<Integer> merged = a.merge(b);
+		Collections.sort(expected);
+		for (int value : expected) {
+			assertEquals("Merging does not work correctly", value, (int) merged.peek());
+			merged = merged.deleteMin();
+		}
+		assertEquals("Merging changed a source heap", 334, a.size());
+	}
+}
@@ -0,0 +1,81 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class PublishedTopHeapTest extends HeapTest<PublishedTopHeap<Integer>> {
+
+	@Override
+	protected PublishedTopHeap<Integer> createInstance(int order) {
+		return new PublishedTopHeap<>(order);
+	}
+
+	@Test
+	public void testReadersSeeConsistentState() throws InterruptedException {
+		PublishedTopHeap<Integer> heap = new PublishedTopHeap<>(4);
+		int threads = 4;
+		int perThread = 5000;
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicBoolean consistent = new AtomicBoolean(true);
+		// Writers only offer decreasing elements, so a reader must never see
+		// the size shrink or the smallest element grow.
+		Thread reader = new Thread(() -> {
+			int lastSize = 0;
+			int lastTop = Integer.MAX_VALUE;
+			while (!done.get()) {
+				int size = heap.size();
+				if (size < lastSize) {
+					consistent.set(false);
+				}
+				lastSize = size;
+				try {
+					int top = heap.peek();
+					if (top > lastTop) {
+						consistent.set(false);
+					}
+					lastTop = top;
+				} catch (NoSuchElementException e) {
+					if (lastSize > 0) {
+						consistent.set(false);
+					}
+				}
+			}
+		});
+		reader.start();
+		List<Thread> writers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int offset = t;
+			writers.add(new Thread(() -> {
+				for (int i = perThread; i > 0; i--) {
+					heap.offer(i * threads + offset);
+				}
+			}));
+		}
+		for (Thread writer : writers) {
+			writer.start();
+		}
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		done.set(true);
+		reader.join();
+		assertTrue("A reader saw an inconsistent state", consistent.get());
+		assertEquals("Size is not updated correctly", threads * perThread, heap.size());
+		for (int i = threads; i < threads * (perThread + 1); i++) {
+			assertEquals("Poll does not return the smallest element", i, (int) heap.poll());
+		}
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testConcurrentPollN() throws InterruptedException {
+		assertConcurrentPollN(() -> new PublishedTopHeap<>(4));
+	}
+}
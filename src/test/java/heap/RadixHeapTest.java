@@ -0,0 +1,83 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RadixHeapTest extends HeapTest<RadixHeap<Integer>> {
+
+	@Override
+	protected RadixHeap<Integer> createInstance(int order) {
+		return new RadixHeap<>(Integer::longValue);
+	}
+
+	@Test
+	public void testMonotoneContract() {
+		heap.offer(10);
+		heap.offer(20);
+		assertEquals(10, (int) heap.poll());
+		heap.offer(10);
+		boolean exceptionThrown = false;
+		try {
+			heap.offer(9);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for offering a key below the last polled key", exceptionThrown);
+		assertEquals(10, (int) heap.poll());
+		assertEquals(20, (int) heap.poll());
+	}
+
+	@Test
+	public void testNegativeKeys() {
+		int[] values = { 5, -3, Integer.MIN_VALUE, 0, -1, Integer.MAX_VALUE, -3 };
+		for (int value : values) {
+			heap.offer(value);
+		}
+		Arrays.sort(values);
+		for (int value : values) {
+			assertEquals("Negative keys are not ordered correctly", value, heap.peekKey());
+			assertEquals("Negative keys are not ordered correctly", value, (int) heap.poll());
+		}
+	}
+
+	@Test
+	public void testExtremeKeys() {
+		RadixHeap<String> heap = new RadixHeap<>(String::length);
+		heap.offer(Long.MAX_VALUE, "max");
+		heap.offer(Long.MIN_VALUE, "min");
+		heap.offer(0, "zero");
+		assertEquals("min", heap.poll());
+		assertEquals("zero", heap.poll());
+		heap.offer(Long.MAX_VALUE, "max again");
+		assertEquals(Long.MAX_VALUE, heap.peekKey());
+		heap.poll();
+		heap.poll();
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testSimulation() {
+		Random random = new Random(42);
+		RadixHeap<long[]> heap = new RadixHeap<>(event -> event[0]);
+		PriorityQueue<Long> expected = new PriorityQueue<>();
+		for (int i = 0; i < 1000; i++) {
+			long time = random.nextInt(1000);
+			heap.offer(new long[] { time });
+			expected.add(time);
+		}
+		for (int i = 0; i < 100000; i++) {
+			long now = heap.poll()[0];
+			assertEquals("Polling does not work correctly", (long) expected.poll(), now);
+			long time = now + random.nextInt(1000);
+			heap.offer(new long[] { time });
+			expected.add(time);
+		}
+		assertEquals("Size is not updated correctly", 1000, heap.size());
+	}
+}
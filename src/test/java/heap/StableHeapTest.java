@@ -0,0 +1,52 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class StableHeapTest extends HeapTest<StableHeap<Integer>> {
+
+	@Override
+	protected StableHeap<Integer> createInstance(int order) {
+		return new StableHeap<>(order);
+	}
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			createInstance(0);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for trying to create a heap with order 0", exceptionThrown);
+	}
+
+	@Test
+	public void testEqualElementsArePolledInOfferOrder() {
+		Random random = new Random(42);
+		for (int order = 1; order < 6; order++) {
+			StableHeap<int[]> stableHeap = new StableHeap<>(order, Comparator.comparingInt(a -> a[0]));
+			List<int[]> offered = new ArrayList<>();
+			for (int i = 0; i < 2000; i++) {
+				int[] element = { random.nextInt(10), i };
+				offered.add(element);
+				stableHeap.offer(element);
+				if (i % 5 == 0) {
+					offered.remove(stableHeap.poll());
+				}
+			}
+			offered.sort(Comparator.comparingInt(a -> a[0]));
+			for (int[] expected : offered) {
+				assertEquals("Equal elements are not polled in FIFO order for order " + order, expected, stableHeap.poll());
+			}
+			assertTrue(stableHeap.isEmpty());
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class TopKCollectorTest {
+
+	@Test
+	public void testCollector() {
+		List<Integer> top = IntStream.range(0, 1000)
+				.boxed()
+				.collect(TopKCollector.topK(5));
+		assertEquals("The collector returned the wrong elements", Arrays.asList(999, 998, 997, 996, 995), top);
+	}
+
+	@Test
+	public void testCollectorParallel() {
+		List<Integer> top = IntStream.range(0, 100000)
+				.parallel()
+				.boxed()
+				.collect(TopKCollector.topK(5, (a, b) -> Integer.compare(b, a)));
+		assertEquals("The collector returned the wrong elements", Arrays.asList(0, 1, 2, 3, 4), top);
+	}
+
+	@Test
+	public void testFewerElementsThanK() {
+		List<Integer> top = IntStream.range(0, 3)
+				.boxed()
+				.collect(TopKCollector.topK(5));
+		assertEquals("The collector returned the wrong elements", Arrays.asList(2, 1, 0), top);
+	}
+
+	@Test
+	public void testTopKNotNull() {
+		assertNotNull("topK() returns null", TopKCollector.topK(3));
+	}
+}
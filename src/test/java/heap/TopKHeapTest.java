@@ -0,0 +1,95 @@
+package heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class TopKHeapTest extends HeapTest<TopKHeap<Integer>> {
+
+	// Large enough that the shared tests never reach the capacity.
+	@Override
+	protected TopKHeap<Integer> createInstance(int order) {
+		return new TopKHeap<>(order, 10000);
+	}
+
+	@Test
+	public void testConstructor() {
+		boolean exceptionThrown = false;
+		try {
+			new TopKHeap<Integer>(3, 0);
+		} catch (IllegalArgumentException e) {
+			exceptionThrown = true;
+		}
+		assertTrue("No exception thrown for trying to create a heap with capacity 0", exceptionThrown);
+	}
+
+	@Test
+	public void testRetainsGreatest() {
+		Random random = new Random(42);
+		for (int order = 1; order < 6; order++) {
+			TopKHeap<Integer> heap = new TopKHeap<>(order, 10);
+			int[] values = random.ints(1000, 0, 100000)
+					.toArray();
+			for (int value : values) {
+				heap.offer(value);
+			}
+			assertTrue("Heap is not full", heap.isFull());
+			assertEquals("Size exceeds the capacity", 10, heap.size());
+			List<Integer> expected = Arrays.stream(values)
+					.boxed()
+					.sorted((a, b) -> Integer.compare(b, a))
+					.limit(10)
+					.collect(Collectors.toList());
+			assertEquals("The wrong elements were retained", expected, heap.toSortedList());
+		}
+	}
+
+	@Test
+	public void testRejectsLosers() {
+		TopKHeap<Integer> heap = new TopKHeap<>(2, 3);
+		IntStream.range(10, 13)
+				.forEach(heap::offer);
+		assertFalse("A smaller element was retained", heap.offer(5));
+		assertFalse("An element equal to the root was retained", heap.offer(10));
+		assertTrue("A greater element was rejected", heap.offer(20));
+		assertEquals("The smallest element was not evicted", 11, (int) heap.peek());
+	}
+
+	@Test
+	public void testReplaceTop() {
+		TopKHeap<Integer> heap = new TopKHeap<>(2, 3);
+		IntStream.range(10, 13)
+				.forEach(heap::offer);
+		assertEquals("The wrong element was replaced", 10, (int) heap.replaceTop(1));
+		assertEquals("The new element is not on top", 1, (int) heap.peek());
+	}
+
+	@Test
+	public void testOfferContentsOf() {
+		int[] comparisons = new int[1];
+		TopKHeap<Integer> larger = new TopKHeap<>(4, 100, (a, b) -> {
+			comparisons[0]++;
+			return Integer.compare(a, b);
+		});
+		TopKHeap<Integer> smaller = new TopKHeap<>(4, 100);
+		IntStream.range(1000, 1100)
+				.forEach(larger::offer);
+		IntStream.range(0, 100)
+				.forEach(smaller::offer);
+		IntStream.range(2000, 2010)
+				.forEach(smaller::offer);
+		comparisons[0] = 0;
+		larger.offerContentsOf(smaller);
+		assertEquals("The other heap was modified", 100, smaller.size());
+		assertEquals("Merging does not keep the greatest elements", 1010, (int) larger.peek());
+		assertTrue("Elements that lose to the root cost more than one comparison: " + comparisons[0], comparisons[0] < 90 + 10 * 20);
+	}
+}